@@ -0,0 +1,402 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.WorkspaceList;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.SystemProperties;
+import lombok.Getter;
+import org.apache.commons.lang.StringUtils;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serial;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Download artifacts of the remote build which triggered this build into the workspace
+ *
+ * @author HW
+ */
+@Getter
+public class DownloadRemoteArtifactsStep extends Step {
+    /**
+     * max concurrent downloads of one step
+     */
+    private static final int MAX_PARALLELISM = 16;
+    /**
+     * cached artifacts not used for this long are evicted
+     */
+    private static final long CACHE_MAX_AGE = TimeUnit.DAYS.toMillis(
+            SystemProperties.getLong(DownloadRemoteArtifactsStep.class.getName() + ".cacheMaxAgeDays", 7L));
+    /**
+     * least recently used artifacts are evicted above this size
+     */
+    private static final long CACHE_MAX_SIZE = SystemProperties.getLong(
+            DownloadRemoteArtifactsStep.class.getName() + ".cacheMaxSizeMB", 1024L) * 1024 * 1024;
+    /**
+     * md5 fingerprint, the only cache file names
+     */
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{32}");
+    private String uid;
+    private String includes = "**";
+    private String target = "";
+    private int parallelism = 4;
+    private boolean cache = true;
+
+    @DataBoundConstructor
+    public DownloadRemoteArtifactsStep() {
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new DownloadRemoteArtifactsStepExecution(this, context);
+    }
+
+    @DataBoundSetter
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    @DataBoundSetter
+    public void setIncludes(String includes) {
+        this.includes = StringUtils.isEmpty(includes) ? "**" : includes;
+    }
+
+    @DataBoundSetter
+    public void setTarget(String target) {
+        this.target = StringUtils.defaultString(target);
+    }
+
+    @DataBoundSetter
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+    }
+
+    @DataBoundSetter
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    @Extension
+    public static class DownloadRemoteArtifactsStepDescriptor extends StepDescriptor {
+
+        /**
+         * Enumerates any kinds of context the {@link StepExecution} will treat as mandatory.
+         * When {@link StepContext#get} is called, the return value may be null in general;
+         * if your step cannot trivially handle a null value of a given kind, list that type here.
+         * The Pipeline execution engine will then signal a user error before even starting your step if called in an inappropriate context.
+         * For example, a step requesting a Launcher may only be run inside a {@code node {…}} block.
+         */
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Run.class, FilePath.class, TaskListener.class);
+        }
+
+        /**
+         * Return a short string that is a valid identifier for programming languages.
+         * Follow the pattern {@code [a-z][A-Za-z0-9_]*}.
+         * Step will be referenced by this name when used in a programming language.
+         */
+        @Override
+        public String getFunctionName() {
+            return "downloadRemoteArtifacts";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return "Download artifacts of the triggering remote build";
+        }
+    }
+
+
+    public static class DownloadRemoteArtifactsStepExecution extends SynchronousNonBlockingStepExecution<List<String>> {
+        @Serial
+        private static final long serialVersionUID = 2167460528119347706L;
+        private final transient DownloadRemoteArtifactsStep step;
+
+        public DownloadRemoteArtifactsStepExecution(@NonNull DownloadRemoteArtifactsStep step, @NonNull StepContext context) {
+            super(context);
+            this.step = step;
+        }
+
+        /**
+         * Meat of the execution.
+         * <p>
+         * When this method returns, a step execution is over.
+         */
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected List<String> run() throws Exception {
+            Run<?, ?> run = getContext().get(Run.class);
+            FilePath workspace = getContext().get(FilePath.class);
+            TaskListener listener = getContext().get(TaskListener.class);
+
+            JobResultInfo jobResultInfo = getJobResultInfo(run);
+            if (jobResultInfo == null || jobResultInfo.getBuildUrl() == null) {
+                throw new AbortException("No remote build triggered this build" + (step.getUid() != null ? " with uid " + step.getUid() : ""));
+            }
+            String buildUrl = StringUtils.removeEnd(jobResultInfo.getBuildUrl(), "/") + "/";
+            RemoteJobInfo jobInfo = new RemoteJobInfo();
+            jobInfo.setRemoteServer(jobResultInfo.getRemoteServer());
+            jobInfo.setRemoteJobUrl(jobResultInfo.getRemoteJobUrl());
+
+            SourceMap build = RemoteJobResultUtils.requestBuildArtifacts(run.getParent(), jobInfo, buildUrl);
+            if (build == null) {
+                throw new AbortException("Can't get remote build artifacts, Server maybe deleted");
+            }
+
+            // md5 of fingerprinted artifacts, file names must be unique to be used
+            Map<String, String> digests = new HashMap<>();
+            Set<String> duplicated = new HashSet<>();
+            List<Map> fingerprints = build.listValue("fingerprint", Map.class);
+            if (fingerprints != null) {
+                for (Map fingerprint : fingerprints) {
+                    SourceMap map = SourceMap.of(fingerprint);
+                    if (map.stringValue("fileName") != null && digests.put(map.stringValue("fileName"), map.stringValue("hash")) != null) {
+                        duplicated.add(map.stringValue("fileName"));
+                    }
+                }
+            }
+            digests.keySet().removeAll(duplicated);
+
+            List<String> paths = new ArrayList<>();
+            List<Map> artifacts = build.listValue("artifacts", Map.class);
+            if (artifacts != null) {
+                for (Map artifact : artifacts) {
+                    String relativePath = SourceMap.of(artifact).stringValue("relativePath");
+                    if (relativePath != null && isIncluded(relativePath)) {
+                        paths.add(relativePath);
+                    }
+                }
+            }
+            listener.getLogger().println("Downloading " + paths.size() + " artifacts of " + buildUrl);
+            if (paths.isEmpty()) {
+                return paths;
+            }
+
+            FilePath targetDir = workspace.child(step.getTarget());
+            FilePath cacheDir = step.isCache() ? getCacheDir(workspace) : null;
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(step.getParallelism(), paths.size()),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "DownloadRemoteArtifacts " + run.getExternalizableId()));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (String path : paths) {
+                    String digest = digests.get(StringUtils.substringAfterLast("/" + path, "/"));
+                    futures.add(executor.submit(() -> {
+                        download(run, jobInfo, buildUrl, path, digest, targetDir, cacheDir, listener);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                if (cacheDir != null && cacheDir.exists()) {
+                    cacheDir.act(new EvictCacheCallable(CACHE_MAX_AGE, CACHE_MAX_SIZE));
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            } finally {
+                // 失败时取消其他下载
+                executor.shutdownNow();
+            }
+            return paths;
+        }
+
+        private void download(Run<?, ?> run, RemoteJobInfo jobInfo, String buildUrl, String path, String digest,
+                              FilePath targetDir, FilePath cacheDir, TaskListener listener)
+                throws IOException, InterruptedException, UnSuccessfulRequestStatusException {
+            if (path.startsWith("/") || Arrays.asList(path.split("/")).contains("..")) {
+                throw new AbortException("Illegal remote artifact path: " + path);
+            }
+            FilePath dest = targetDir.child(path);
+            if (cacheDir != null && digest != null && !DIGEST.matcher(digest).matches()) {
+                // 指纹来自远程服务器，不是md5的不能作为缓存文件名
+                listener.getLogger().println("Remote fingerprint of " + path + " is not a md5, not cached");
+                digest = null;
+            }
+            FilePath cached = cacheDir != null && digest != null ? cacheDir.child(digest) : null;
+            if (cached != null && cached.exists()) {
+                try {
+                    cached.act(new LocalCopyCallable(dest.getRemote(), true));
+                    listener.getLogger().println("Cached " + path);
+                    return;
+                } catch (NoSuchFileException e) {
+                    // 刚被其他构建清理，重新下载
+                }
+            }
+
+            StringBuilder url = new StringBuilder(buildUrl).append("artifact");
+            for (String segment : path.split("/")) {
+                url.append('/').append(Util.rawEncode(segment));
+            }
+            dest.getParent().mkdirs();
+            // 直接把响应流写到agent上，不在controller上缓存整个文件
+            Object done = RemoteJobResultUtils.downloadRemoteStream(run.getParent(), jobInfo.getRemoteServer(), url.toString(), in -> {
+                try {
+                    dest.copyFrom(in);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Download interrupted: " + path);
+                }
+                return Boolean.TRUE;
+            });
+            if (done == null) {
+                throw new AbortException("Can't download remote artifact " + path + ", Server maybe deleted");
+            }
+            listener.getLogger().println("Downloaded " + path);
+
+            if (cached != null) {
+                if (digest.equalsIgnoreCase(dest.digest())) {
+                    dest.act(new LocalCopyCallable(cached.getRemote(), false));
+                } else {
+                    listener.getLogger().println("Digest of " + path + " doesn't match the remote fingerprint, not cached");
+                }
+            }
+        }
+
+        private boolean isIncluded(String relativePath) {
+            for (String pattern : step.getIncludes().split(",")) {
+                if (SelectorUtils.matchPath(pattern.trim(), relativePath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Nullable
+        private JobResultInfo getJobResultInfo(Run<?, ?> run) {
+            RemoteBuildResultTriggerScheduledAction action = run.getAction(RemoteBuildResultTriggerScheduledAction.class);
+            if (action != null && !action.getJobResultInfos().isEmpty()) {
+                if (StringUtils.isEmpty(step.getUid())) {
+                    return action.getJobResultInfos().get(0);
+                }
+                return action.getJobResultInfos().stream()
+                        .filter(item -> step.getUid().equals(item.getUid()))
+                        .findFirst().orElse(null);
+            }
+            return null;
+        }
+
+        /**
+         * digest keyed cache directory on the node of the workspace
+         */
+        private static FilePath getCacheDir(FilePath workspace) {
+            Computer computer = workspace.toComputer();
+            Node node = computer != null ? computer.getNode() : null;
+            FilePath root = node != null ? node.getRootPath() : null;
+            if (root != null) {
+                return root.child("remote-result-trigger").child("artifacts-cache");
+            }
+            FilePath tmp = WorkspaceList.tempDir(workspace);
+            return tmp != null ? tmp.child("remote-artifacts-cache") : null;
+        }
+    }
+
+    /**
+     * Copy a file to another path of the same node
+     */
+    private static final class LocalCopyCallable extends MasterToSlaveFileCallable<Void> {
+        @Serial
+        private static final long serialVersionUID = -2540432104637286416L;
+        private final String target;
+        /**
+         * mark the source as used, cache hits keep their entry from eviction
+         */
+        private final boolean touchSource;
+
+        private LocalCopyCallable(String target, boolean touchSource) {
+            this.target = target;
+            this.touchSource = touchSource;
+        }
+
+        @Override
+        public Void invoke(File f, VirtualChannel channel) throws IOException {
+            File targetFile = new File(target);
+            Files.createDirectories(targetFile.getParentFile().toPath());
+            File tmp = new File(targetFile.getParentFile(), targetFile.getName() + ".tmp");
+            Files.copy(f.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (touchSource) {
+                f.setLastModified(System.currentTimeMillis());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Evict cached artifacts unused for too long, then the least recently used ones above the size limit
+     */
+    private static final class EvictCacheCallable extends MasterToSlaveFileCallable<Void> {
+        @Serial
+        private static final long serialVersionUID = 6042286318207417330L;
+        private final long maxAge;
+        private final long maxSize;
+
+        private EvictCacheCallable(long maxAge, long maxSize) {
+            this.maxAge = maxAge;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public Void invoke(File dir, VirtualChannel channel) {
+            File[] files = dir.listFiles(File::isFile);
+            if (files == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            List<File> entries = new ArrayList<>();
+            for (File file : files) {
+                if (now - file.lastModified() > maxAge) {
+                    // 包括中断的复制留下的临时文件
+                    file.delete();
+                } else if (DIGEST.matcher(file.getName()).matches()) {
+                    entries.add(file);
+                }
+            }
+            // 最近使用的优先保留
+            entries.sort(Comparator.comparingLong(File::lastModified).reversed());
+            long size = 0;
+            for (File file : entries) {
+                size += file.length();
+                if (size > maxSize) {
+                    file.delete();
+                }
+            }
+            return null;
+        }
+    }
+}
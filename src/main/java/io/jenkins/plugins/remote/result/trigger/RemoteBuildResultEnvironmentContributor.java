@@ -1,5 +1,6 @@
 package io.jenkins.plugins.remote.result.trigger;
 
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
 import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.EnvVars;
@@ -37,9 +38,14 @@ public class RemoteBuildResultEnvironmentContributor extends EnvironmentContribu
      */
     @Override
     public void buildEnvironmentFor(@NonNull Job j, @NonNull EnvVars envs, @NonNull TaskListener listener) throws IOException, InterruptedException {
-        Map<String, String> remoteEnvs = RemoteJobResultUtils.getJobRemoteResultEnvs(j);
-        if (!remoteEnvs.isEmpty()) {
-            envs.putAll(remoteEnvs);
+        long start = System.nanoTime();
+        try {
+            Map<String, String> remoteEnvs = RemoteJobResultUtils.getJobRemoteResultEnvs(j);
+            if (!remoteEnvs.isEmpty()) {
+                envs.putAll(remoteEnvs);
+            }
+        } finally {
+            RemoteTriggerMetrics.updateEnvContributor(System.nanoTime() - start);
         }
         super.buildEnvironmentFor(j, envs, listener);
     }
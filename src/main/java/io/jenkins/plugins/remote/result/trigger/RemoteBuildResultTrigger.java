@@ -1,22 +1,36 @@
 package io.jenkins.plugins.remote.result.trigger;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
+import hudson.ExtensionList;
 import hudson.model.Action;
 import hudson.model.Item;
 import hudson.model.Node;
+import hudson.triggers.Trigger;
 import hudson.util.CopyOnWriteList;
+import hudson.util.StreamTaskListener;
 import io.jenkins.plugins.remote.result.trigger.exceptions.RemoteJobInBuildingException;
 import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
+import io.jenkins.plugins.remote.result.trigger.model.BuildSummary;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
-import io.jenkins.plugins.remote.result.trigger.model.ResultCheck;
+import io.jenkins.plugins.remote.result.trigger.model.PollHistoryEntry;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteBuildPrefetcher;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobMetadataCache;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollHistory;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollLog;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollScheduler;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStore;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStores;
 import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
 import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+import io.jenkins.plugins.remote.result.trigger.utils.StateFormat;
 import jenkins.model.Jenkins;
+import jenkins.model.ParameterizedJobMixIn;
 import lombok.Getter;
 import net.sf.json.JSONObject;
 import org.apache.commons.collections.CollectionUtils;
@@ -25,15 +39,22 @@ import org.jenkinsci.plugins.xtriggerapi.AbstractTrigger;
 import org.jenkinsci.plugins.xtriggerapi.XTriggerDescriptor;
 import org.jenkinsci.plugins.xtriggerapi.XTriggerException;
 import org.jenkinsci.plugins.xtriggerapi.XTriggerLog;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.StaplerRequest2;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Remote Build Result Trigger
@@ -43,6 +64,11 @@ import java.util.regex.Pattern;
 public class RemoteBuildResultTrigger extends AbstractTrigger implements Serializable {
     @Serial
     private static final long serialVersionUID = -4059001060991775146L;
+    private static final Logger LOGGER = Logger.getLogger(RemoteBuildResultTrigger.class.getName());
+    /**
+     * polls are spread over at most this many minutes
+     */
+    private static final int MAX_POLL_SPREAD_MINUTES = 60;
     @Getter
     private final List<RemoteJobInfo> remoteJobInfos;
 
@@ -77,8 +103,6 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
     @Override
     @SuppressFBWarnings(value = "NP_NULL_PARAM_DEREF")
     protected boolean checkIfModified(Node pollingNode, XTriggerLog log) throws XTriggerException {
-        boolean modified = false;
-        ObjectWriter jsonPretty = new ObjectMapper().writerWithDefaultPrettyPrinter();
         // check job is null
         if (job == null) {
             return false;
@@ -86,113 +110,262 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
             log.info("Job count: " + remoteJobInfos.size());
             // clean unused build result
             RemoteJobResultUtils.cleanUnusedBuildInfo(job, remoteJobInfos);
+            Set<String> remoteJobIds = remoteJobInfos.stream().map(RemoteJobInfo::getId).collect(Collectors.toSet());
+            RemoteJobStatusIndex.retain(job.getFullName(), remoteJobIds);
+            RemotePollHistory.retain(job, remoteJobIds);
+            RemoteTriggerMetrics.retainRemote(job.getFullName(), remoteJobInfos);
+            // 异步轮询发现了需要触发的构建，命中保存在任务状态中，触发器被替换也不会丢失
+            try {
+                if (RemoteJobResultUtils.drainPending(job)) {
+                    log.info("Remote build matched, trigger");
+                    return true;
+                }
+            } catch (IOException e) {
+                log.error("Can't read remote build state: " + e.getMessage());
+            }
+            // 交给统一调度器在各自的时间片轮询
+            RemotePollScheduler scheduler = RemotePollScheduler.get();
+            long interval = getPollInterval();
             for (RemoteJobInfo jobInfo : remoteJobInfos) {
-                try {
-                    log.info("================== " + jobInfo.getRemoteJobUrl() + " ==================");
-                    // get next build number
-                    Integer lastBuildBuildNumber = RemoteJobResultUtils.requestLastBuildBuildNumber(job, jobInfo);
-                    if (lastBuildBuildNumber != null) {
-                        log.info("Build number: " + lastBuildBuildNumber);
-                        int checkedNumber = RemoteJobResultUtils.getCheckedNumber(job, jobInfo);
-                        log.info("Checked number: " + checkedNumber);
-                        int minBuildNumber = getMinBuildNumber(job, jobInfo, checkedNumber);
-                        log.info("Min request number: " + minBuildNumber);
-                        // checked remote build
-                        for (int number = lastBuildBuildNumber; number > minBuildNumber; number--) {
-                            SourceMap result = RemoteJobResultUtils.requestBuildResult(job, jobInfo, number);
-                            if (result != null) {
-                                // 清理result,并提取resultJson
-                                SourceMap resultJson = cleanAndFixResultJson(result);
-
-                                Integer buildNumber = result.integerValue("number");
-                                String buildUrl = result.stringValue("url");
-
-                                log.info("Last build url: " + buildUrl);
-                                log.info("Last build number: " + buildNumber);
+                RemoteJobStatusIndex.register(job.getFullName(), jobInfo);
+                if (scheduler.schedule(getPollKeyPrefix() + jobInfo.getId(), interval, () -> pollRemoteJob(jobInfo))) {
+                    log.info("Poll scheduled: " + jobInfo.getRemoteJobUrl());
+                } else {
+                    log.info("Poll already scheduled: " + jobInfo.getRemoteJobUrl());
+                }
+            }
+            log.info("Poll queue depth: " + scheduler.getQueueDepth() + ", lag: " + scheduler.getLag() + "ms");
+        } else {
+            log.error("No remote job configured!");
+        }
+        return false;
+    }
+
+    /**
+     * Poll a remote job on the scheduler thread, fire this trigger if a remote build matched
+     *
+     * @param jobInfo remote job
+     */
+    @Restricted(NoExternalUse.class)
+    void pollRemoteJob(RemoteJobInfo jobInfo) {
+        if (job == null) {
+            return;
+        }
+        boolean modified = false;
+        // 先写入内存，轮询结束后交给后台线程写入滚动日志
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (StreamTaskListener listener = new StreamTaskListener(buffer, StandardCharsets.UTF_8)) {
+            XTriggerLog log = new XTriggerLog(listener);
+            long start = System.nanoTime();
+            PollHistoryEntry entry = new PollHistoryEntry();
+            entry.setTimestamp(System.currentTimeMillis());
+            RemoteTriggerMetrics.beginPoll();
+            try {
+                modified = checkRemoteJob(jobInfo, log, entry);
+                log.info("Poll " + jobInfo.getRemoteJobUrl() + " took "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+            } catch (XTriggerException e) {
+                log.error(e.getMessage() + (e.getCause() != null ? ": " + e.getCause().getMessage() : ""));
+                RemoteJobStatusIndex.onPollFailed(job.getFullName(), jobInfo, e.getMessage());
+                entry.setVerdict(PollHistoryEntry.Verdict.ERROR);
+            } finally {
+                RemoteTriggerMetrics.endPoll(job.getFullName(), jobInfo.getRemoteServer(), jobInfo.getRemoteJobUrl(),
+                        System.nanoTime() - start);
+                entry.setLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                RemoteJobStatusIndex.onPollFinished(job.getFullName(), jobInfo, entry.getLatency());
+                RemotePollHistory.add(job, jobInfo.getId(), entry);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Can't write remote result trigger log of " + job.getFullName(), e);
+        }
+        RemotePollLog.append(job, buffer.toByteArray());
+        if (modified) {
+            RemoteTriggerMetrics.markFired(job.getFullName());
+            RemoteJobStatusIndex.onFired(job.getFullName(), jobInfo);
+            // 通过xtrigger触发构建
+            run();
+        }
+    }
+
+    /**
+     * Check a remote job
+     *
+     * @param jobInfo remote job
+     * @param log     log
+     * @param entry   poll outcome to fill
+     * @return need trigger
+     */
+    private boolean checkRemoteJob(RemoteJobInfo jobInfo, XTriggerLog log, PollHistoryEntry entry) throws XTriggerException {
+        boolean modified = false;
+        ObjectWriter jsonPretty = new ObjectMapper().writerWithDefaultPrettyPrinter();
+        int lastBuildNumber = 0;
+        int checkedNumber = 0;
+        boolean fullLog = RemotePollLog.isFull();
+        try {
+            log.info("================== " + jobInfo.getRemoteJobUrl() + " ==================");
+            // get next build number
+            RemoteJobMetadataCache.checkExists(jobInfo);
+            Integer lastBuildBuildNumber;
+            try {
+                lastBuildBuildNumber = RemoteJobResultUtils.requestLastBuildBuildNumber(job, jobInfo);
+            } catch (UnSuccessfulRequestStatusException e) {
+                if (e.getStatus() == 404) {
+                    // 没有构建或任务不存在，不存在的任务会被缓存并退避
+                    RemoteJobMetadataCache.get(job, jobInfo);
+                }
+                throw e;
+            }
+            if (lastBuildBuildNumber != null) {
+                log.info("Build number: " + lastBuildBuildNumber);
+                lastBuildNumber = lastBuildBuildNumber;
+                checkedNumber = RemoteJobResultUtils.getCheckedNumber(job, jobInfo);
+                log.info("Checked number: " + checkedNumber);
+                int minBuildNumber = getMinBuildNumber(job, jobInfo, lastBuildBuildNumber, checkedNumber);
+                log.info("Min request number: " + minBuildNumber);
+                // checked remote build, newest first
+                List<Integer> numbers = new ArrayList<>();
+                for (int number = lastBuildBuildNumber; number > minBuildNumber; number--) {
+                    numbers.add(number);
+                }
+                // 先轻量查询整个范围的状态，只请求可能触发的构建的完整结果
+                numbers = filterCandidates(jobInfo, numbers, log, entry);
+                try (RemoteBuildPrefetcher prefetcher = new RemoteBuildPrefetcher(job, jobInfo, numbers,
+                        RemoteBuildResultTriggerDescriptor.get().getPrefetchDepth())) {
+                    for (int index = 0; index < prefetcher.size(); index++) {
+                        SourceMap result = prefetcher.get(index);
+                        if (result != null) {
+                            // 清理会移除actions，先提取摘要和参数
+                            BuildSummary summary = RemoteJobResultUtils.toBuildSummary(result);
+                            // 清理result,并提取resultJson
+                            SourceMap resultJson = RemoteJobResultUtils.cleanAndFixResultJson(result);
+
+                            Integer buildNumber = result.integerValue("number");
+                            String buildUrl = result.stringValue("url");
+
+                            log.info("Last build url: " + buildUrl);
+                            log.info("Last build number: " + buildNumber);
+                            // 记录最新的一个构建，命中时会被覆盖
+                            if (entry.getNumber() == null) {
+                                entry.setNumber(buildNumber);
+                                entry.setResult(result.stringValue("result"));
+                                entry.setVerdict(PollHistoryEntry.Verdict.RESULT_SKIPPED);
+                            }
+                            if (fullLog) {
                                 log.info("Remote build result: " + jsonPretty.writeValueAsString(result.getSource()));
                                 if (resultJson != null) {
                                     log.info("Remote build result json: " + jsonPretty.writeValueAsString(resultJson.getSource()));
                                 }
+                            } else {
+                                log.info("Remote build result: " + result.stringValue("result"));
+                            }
+
+                            // build completed
+                            if (!(result.booleanValue("building") || result.booleanValue("inProgress"))) {
+
+                                // check need trigger
+                                if (jobInfo.getTriggerResults().contains(result.stringValue("result"))) {
+                                    log.info("Result confirmed: " + result.stringValue("result"));
+                                    // check result
+                                    if (CollectionUtils.isNotEmpty(jobInfo.getResultChecks()) && resultJson == null) {
+                                        log.error("Cannot find remote result json!");
+                                    }
+                                    modified = RemoteJobResultUtils.isResultChecksPassed(jobInfo.getResultChecks(), resultJson);
+                                    if (entry.getNumber().equals(buildNumber) && !modified) {
+                                        entry.setVerdict(PollHistoryEntry.Verdict.CHECK_FAILED);
+                                    }
 
-                                // build completed
-                                if (!(result.booleanValue("building") || result.booleanValue("inProgress"))) {
-
-                                    // check need trigger
-                                    if (jobInfo.getTriggerResults().contains(result.stringValue("result"))) {
-                                        log.info("Result confirmed: " + result.stringValue("result"));
-                                        // check result
-                                        List<ResultCheck> resultChecks = jobInfo.getResultChecks();
-                                        if (CollectionUtils.isNotEmpty(resultChecks)) {
-                                            if (resultJson == null) {
-                                                log.error("Cannot find remote result json!");
-                                            } else {
-                                                modified = true;
-                                                for (ResultCheck check : resultChecks) {
-                                                    if (StringUtils.isNotEmpty(check.getKey())
-                                                            && StringUtils.isNotEmpty(check.getExpectedValue())) {
-                                                        if (resultJson.containsKey(check.getKey())) {
-                                                            String value = resultJson.stringValue(check.getKey());
-                                                            Pattern pattern = Pattern.compile(check.getExpectedValue());
-                                                            if (!pattern.matcher(value).matches()) {
-                                                                // 发现错误，跳出检查
-                                                                modified = false;
-                                                                break;
-                                                            }
-                                                        } else {
-                                                            modified = false;
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                        } else {
-                                            modified = true;
-                                        }
-
-                                        if (modified) {
-                                            // changed
-                                            log.info("Need trigger, remote build result: " + result.stringValue("result"));
-                                            // save info
-                                            RemoteJobResultUtils.saveBuildResultInfo(job, jobInfo, result);
-                                            RemoteJobResultUtils.saveTriggeredNumber(job, jobInfo, buildNumber);
-                                            if (resultJson != null) {
-                                                RemoteJobResultUtils.saveRemoteResultInfo(job, jobInfo, resultJson);
-                                            }
-                                            // 这个任务检查完成了，继续下一个任务检查
-                                            break;
-                                        }
+                                    if (modified) {
+                                        entry.setNumber(buildNumber);
+                                        entry.setResult(result.stringValue("result"));
+                                        entry.setVerdict(PollHistoryEntry.Verdict.MATCHED);
+                                        // changed
+                                        log.info("Need trigger, remote build result: " + result.stringValue("result"));
+                                        // save info
+                                        RemoteJobResultUtils.saveTriggeredBuild(job, jobInfo, summary, result, buildNumber, resultJson);
+                                        // 这个任务检查完成了，继续下一个任务检查
+                                        break;
                                     }
-                                } else {
-                                    // 如果当前任务正在构建中，跳过这个任务
-                                    throw new RemoteJobInBuildingException("Job is in building, skip checking:" + result.stringValue("url"));
                                 }
                             } else {
-                                // remote server has been deleted
-                                throw new XTriggerException("Can't get remote build result, Server maybe deleted");
+                                // 如果当前任务正在构建中，跳过这个任务
+                                entry.setVerdict(PollHistoryEntry.Verdict.BUILDING);
+                                throw new RemoteJobInBuildingException("Job is in building, skip checking:" + result.stringValue("url"));
                             }
+                        } else {
+                            // remote server has been deleted
+                            throw new XTriggerException("Can't get remote build result, Server maybe deleted");
                         }
-
-                        // 完整一轮检查完成后，saved checked number
-                        RemoteJobResultUtils.saveCheckedNumber(job, jobInfo, lastBuildBuildNumber);
-                    }
-                } catch (RemoteJobInBuildingException e) {
-                    // 任务正在构建，跳出检查
-                    log.error(e.getMessage());
-                } catch (IOException e) {
-                    // 这个发生概率太大，不要一直抛出到Jenkins管理，不然日志台上一堆异常
-                    log.error("Request last remote have a io exception：" + e.getMessage());
-                } catch (UnSuccessfulRequestStatusException e) {
-                    // if status is 404, maybe didn't have a successful build
-                    if (e.getStatus() != 404) {
-                        throw new XTriggerException("Request last remote successful job fail", e);
                     }
                 }
+
+                // 完整一轮检查完成后，saved checked number
+                RemoteJobResultUtils.saveCheckedNumber(job, jobInfo, lastBuildBuildNumber);
+                checkedNumber = lastBuildBuildNumber;
+                RemoteJobStatusIndex.onPollSucceeded(job.getFullName(), jobInfo, lastBuildNumber, checkedNumber);
+            } else {
+                RemoteJobStatusIndex.onPollFailed(job.getFullName(), jobInfo, "Remote server not found");
+                entry.setVerdict(PollHistoryEntry.Verdict.ERROR);
+            }
+        } catch (RemoteJobInBuildingException e) {
+            // 任务正在构建，跳出检查
+            log.error(e.getMessage());
+            RemoteJobStatusIndex.onPollSucceeded(job.getFullName(), jobInfo, lastBuildNumber, checkedNumber);
+        } catch (IOException e) {
+            // 这个发生概率太大，不要一直抛出到Jenkins管理，不然日志台上一堆异常
+            log.error("Request last remote have a io exception：" + e.getMessage());
+            RemoteJobStatusIndex.onPollFailed(job.getFullName(), jobInfo, e.getMessage());
+            entry.setVerdict(PollHistoryEntry.Verdict.ERROR);
+        } catch (UnSuccessfulRequestStatusException e) {
+            // if status is 404, maybe didn't have a successful build
+            if (e.getStatus() == 404) {
+                RemoteJobStatusIndex.onPollSucceeded(job.getFullName(), jobInfo, lastBuildNumber, checkedNumber);
+            } else {
+                throw new XTriggerException("Request last remote successful job fail", e);
             }
-        } else {
-            log.error("No remote job configured!");
         }
         return modified;
     }
 
+    /**
+     * poll key prefix of this trigger's job
+     */
+    private String getPollKeyPrefix() {
+        return job.getFullName() + "#";
+    }
+
+    /**
+     * interval between two cron ticks of this trigger
+     *
+     * @return interval (ms)
+     */
+    private long getPollInterval() {
+        if (tabs == null) {
+            return TimeUnit.MINUTES.toMillis(1);
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        Long first = null;
+        for (int i = 0; i < MAX_POLL_SPREAD_MINUTES; i++) {
+            calendar.add(Calendar.MINUTE, 1);
+            if (tabs.check(calendar)) {
+                if (first != null) {
+                    return calendar.getTimeInMillis() - first;
+                }
+                first = calendar.getTimeInMillis();
+            }
+        }
+        return TimeUnit.MINUTES.toMillis(MAX_POLL_SPREAD_MINUTES);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (job != null) {
+            RemotePollScheduler.get().cancel(getPollKeyPrefix());
+        }
+    }
+
     @Override
     protected Action[] getScheduledActions(Node pollingNode, XTriggerLog log) {
         if (job != null) {
@@ -225,52 +398,92 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
         return "A successful build result within the remote job";
     }
 
-    @Override
-    public RemoteBuildResultTriggerDescriptor getDescriptor() {
-        return (RemoteBuildResultTriggerDescriptor) Jenkins.get().getDescriptorOrDie(getClass());
-    }
-
-    private Integer getMinBuildNumber(Item job, RemoteJobInfo jobInfo, int checkedNumber)
-            throws UnSuccessfulRequestStatusException, IOException {
-        SourceMap info = RemoteJobResultUtils.requestJobInfo(job, jobInfo);
-        if (info != null) {
-            SourceMap firstBuild = info.sourceMap("firstBuild");
-            if (firstBuild != null) {
-                Integer number = firstBuild.integerValue("number");
-                if (number != null) {
-                    // Number必须-1，因为后续for循环是左开
-                    return Math.max(checkedNumber, number - 1);
+    /**
+     * Drop the candidate builds whose result is not selected, using one light status query for the newest
+     * {@link RemoteJobResultUtils#MAX_BUILD_STATUSES} builds. Builds still running or missing from the answer,
+     * including the older builds past the cap, are kept and fetched in full, older builds than a running one
+     * are never evaluated.
+     *
+     * @param jobInfo remote job
+     * @param numbers candidate build numbers, newest first
+     * @param log     log
+     * @param entry   poll outcome to fill
+     * @return candidate build numbers to fetch in full, newest first
+     */
+    private List<Integer> filterCandidates(RemoteJobInfo jobInfo, List<Integer> numbers, XTriggerLog log, PollHistoryEntry entry) {
+        if (numbers.size() < 2) {
+            // 只有一个候选构建时，状态查询不会减少请求
+            return numbers;
+        }
+        Map<Integer, SourceMap> statuses;
+        try {
+            statuses = RemoteJobResultUtils.requestBuildStatuses(job, jobInfo, numbers.size());
+        } catch (IOException | UnSuccessfulRequestStatusException e) {
+            // 旧版本或受限的远程服务器，逐个请求完整结果
+            log.info("Build status query failed, fetch every build: " + e.getMessage());
+            return numbers;
+        }
+        if (statuses == null) {
+            return numbers;
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (Integer number : numbers) {
+            SourceMap status = statuses.get(number);
+            if (status == null) {
+                candidates.add(number);
+                continue;
+            }
+            String result = status.stringValue("result");
+            if (Boolean.TRUE.equals(status.booleanValue("building")) || Boolean.TRUE.equals(status.booleanValue("inProgress"))) {
+                // 正在构建的构建会中止检查，更早的构建不需要请求
+                candidates.add(number);
+                break;
+            }
+            if (result == null || jobInfo.getTriggerResults().contains(result)) {
+                candidates.add(number);
+            } else {
+                log.info("Skip build " + number + ", remote build result: " + result);
+                // 最新的构建被跳过时，记录它的结果
+                if (candidates.isEmpty() && entry.getNumber() == null) {
+                    entry.setNumber(number);
+                    entry.setResult(result);
+                    entry.setVerdict(PollHistoryEntry.Verdict.RESULT_SKIPPED);
                 }
             }
         }
-        return checkedNumber;
+        return candidates;
     }
 
     /**
-     * 清理并格式化返回
+     * get the trigger of a job
+     *
+     * @param item Jenkins item
+     * @return trigger, null if the item doesn't use it
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private SourceMap cleanAndFixResultJson(SourceMap result) throws JsonProcessingException {
-        Map<String, Object> source = result.getSource();
-        // 清理changeSets、culprits、artifacts等
-        source.remove("changeSets");
-        source.remove("culprits");
-        source.remove("artifacts");
-        source.remove("_class");
-        // 清理actions
-        List<Map> actions = result.listValue("actions", Map.class);
-        SourceMap resultJson = null;
-        for (Map action : actions) {
-            SourceMap sourceMap = SourceMap.of(action);
-            if (RemoteResultAction.class.getName().equals(sourceMap.stringValue("_class"))) {
-                Map resultJsonMap = sourceMap.sourceMap("result").getSource();
-                resultJsonMap.remove("_class");
-                resultJson = SourceMap.of(resultJsonMap);
-                break;
+    public static RemoteBuildResultTrigger getTrigger(Item item) {
+        if (item instanceof ParameterizedJobMixIn.ParameterizedJob) {
+            for (Trigger<?> trigger : ((ParameterizedJobMixIn.ParameterizedJob<?, ?>) item).getTriggers().values()) {
+                if (trigger instanceof RemoteBuildResultTrigger) {
+                    return (RemoteBuildResultTrigger) trigger;
+                }
             }
         }
-        source.remove("actions");
-        return resultJson;
+        return null;
+    }
+
+    @Override
+    public RemoteBuildResultTriggerDescriptor getDescriptor() {
+        return (RemoteBuildResultTriggerDescriptor) Jenkins.get().getDescriptorOrDie(getClass());
+    }
+
+    private Integer getMinBuildNumber(Item job, RemoteJobInfo jobInfo, int lastBuildNumber, int checkedNumber)
+            throws UnSuccessfulRequestStatusException, IOException {
+        Integer number = RemoteJobMetadataCache.getFirstBuildNumber(job, jobInfo, lastBuildNumber, checkedNumber);
+        if (number != null) {
+            // Number必须-1，因为后续for循环是左开
+            return Math.max(checkedNumber, number - 1);
+        }
+        return checkedNumber;
     }
 
     @Extension
@@ -284,6 +497,56 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
          * If you don't want fields to be persisted, use <tt>transient</tt>.
          */
         private final CopyOnWriteList<RemoteJenkinsServer> remoteJenkinsServers = new CopyOnWriteList<>();
+        /**
+         * max concurrent remote job polls
+         */
+        private int pollThreads = RemotePollScheduler.DEFAULT_POOL_SIZE;
+        /**
+         * polls admitted per second after startup, 0 to disable ramp-up
+         */
+        private int rampRate = RemotePollScheduler.DEFAULT_RAMP_RATE;
+        /**
+         * older builds fetched concurrently when the newest didn't match
+         */
+        private int prefetchDepth = RemoteBuildPrefetcher.DEFAULT_DEPTH;
+        /**
+         * seconds the remote job metadata is cached, 0 to request it on every poll
+         */
+        private int metadataTtl = RemoteJobMetadataCache.DEFAULT_TTL;
+        /**
+         * poll log file size (KB) before rotation
+         */
+        private int pollLogMaxSize = RemotePollLog.DEFAULT_MAX_SIZE_KB;
+        /**
+         * poll log files kept, including the current one
+         */
+        private int pollLogFiles = RemotePollLog.DEFAULT_MAX_FILES;
+        private RemotePollLog.Verbosity pollLogVerbosity = RemotePollLog.Verbosity.SUMMARY;
+        /**
+         * poll outcomes kept per remote job
+         */
+        private int historyDepth = RemotePollHistory.DEFAULT_DEPTH;
+        /**
+         * keep the raw remote build json next to the build summary
+         */
+        private boolean keepRawBuildResult;
+        /**
+         * encoding of the state files
+         */
+        private StateFormat stateFormat = StateFormat.JSON_PRETTY;
+        /**
+         * gzip the state files
+         */
+        private boolean stateGzip;
+        private RemoteStateStore.Type stateStore = RemoteStateStore.Type.JOB_FILE;
+        /**
+         * id -> server, rebuilt as a whole when servers change
+         */
+        private transient volatile Map<String, RemoteJenkinsServer> serverIndex = Collections.emptyMap();
+        /**
+         * display name and url -> server, rebuilt as a whole when servers change
+         */
+        private transient volatile Map<String, RemoteJenkinsServer> serverNameIndex = Collections.emptyMap();
 
         /**
          * In order to load the persisted global configuration, you have to
@@ -291,6 +554,7 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
          */
         public RemoteBuildResultTriggerDescriptor() {
             load();
+            rebuildServerIndex();
         }
 
         /**
@@ -352,6 +616,29 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
             }
 
             remoteJenkinsServers.replaceBy(servers);
+            rebuildServerIndex();
+
+            // polling
+            pollThreads = Math.max(1, json.optInt("pollThreads", RemotePollScheduler.DEFAULT_POOL_SIZE));
+            rampRate = Math.max(0, json.optInt("rampRate", RemotePollScheduler.DEFAULT_RAMP_RATE));
+            RemotePollScheduler.get().setPoolSize(pollThreads);
+            RemotePollScheduler.get().setRampRate(rampRate);
+            prefetchDepth = Math.max(1, json.optInt("prefetchDepth", RemoteBuildPrefetcher.DEFAULT_DEPTH));
+            metadataTtl = Math.max(0, json.optInt("metadataTtl", RemoteJobMetadataCache.DEFAULT_TTL));
+            pollLogMaxSize = Math.max(1, json.optInt("pollLogMaxSize", RemotePollLog.DEFAULT_MAX_SIZE_KB));
+            pollLogFiles = Math.max(1, json.optInt("pollLogFiles", RemotePollLog.DEFAULT_MAX_FILES));
+            pollLogVerbosity = RemotePollLog.Verbosity.valueOf(
+                    json.optString("pollLogVerbosity", RemotePollLog.Verbosity.SUMMARY.name()));
+            historyDepth = Math.max(1, json.optInt("historyDepth", RemotePollHistory.DEFAULT_DEPTH));
+            // state
+            keepRawBuildResult = json.optBoolean("keepRawBuildResult", false);
+            stateFormat = StateFormat.valueOf(json.optString("stateFormat", StateFormat.JSON_PRETTY.name()));
+            stateGzip = json.optBoolean("stateGzip", false);
+            try {
+                setStateStore(RemoteStateStore.Type.valueOf(json.optString("stateStore", RemoteStateStore.Type.JOB_FILE.name())));
+            } catch (IOException e) {
+                throw new FormException("Can't copy the trigger state into the new state store: " + e.getMessage(), e, "stateStore");
+            }
 
             save();
 
@@ -361,5 +648,122 @@ public class RemoteBuildResultTrigger extends AbstractTrigger implements Seriali
         public RemoteJenkinsServer[] getRemoteJenkinsServers() {
             return remoteJenkinsServers.toArray(new RemoteJenkinsServer[this.remoteJenkinsServers.size()]);
         }
+
+        /**
+         * replace the remote servers without the config form, e.g. in tests
+         *
+         * @param servers remote servers
+         */
+        @Restricted(NoExternalUse.class)
+        public void setRemoteJenkinsServers(List<RemoteJenkinsServer> servers) {
+            remoteJenkinsServers.replaceBy(servers);
+            rebuildServerIndex();
+            save();
+        }
+
+        /**
+         * @param id remote server id
+         * @return remote server, null if not found
+         */
+        public RemoteJenkinsServer getRemoteJenkinsServer(String id) {
+            return id != null ? serverIndex.get(id) : null;
+        }
+
+        /**
+         * @param name remote server display name or url
+         * @return remote server, null if not found
+         */
+        public RemoteJenkinsServer getRemoteJenkinsServerByName(String name) {
+            return name != null ? serverNameIndex.get(name) : null;
+        }
+
+        private void rebuildServerIndex() {
+            Map<String, RemoteJenkinsServer> ids = new HashMap<>();
+            Map<String, RemoteJenkinsServer> names = new HashMap<>();
+            for (RemoteJenkinsServer server : remoteJenkinsServers) {
+                if (server.getId() != null) {
+                    ids.putIfAbsent(server.getId(), server);
+                }
+                if (server.getDisplayName() != null) {
+                    names.putIfAbsent(server.getDisplayName(), server);
+                }
+                if (server.getUrl() != null) {
+                    names.putIfAbsent(server.getUrl(), server);
+                }
+            }
+            serverIndex = Map.copyOf(ids);
+            serverNameIndex = Map.copyOf(names);
+            // 服务器地址或认证可能改变
+            RemoteJobMetadataCache.invalidateAll();
+        }
+
+        public int getPollThreads() {
+            return pollThreads;
+        }
+
+        public int getRampRate() {
+            return rampRate;
+        }
+
+        public int getPrefetchDepth() {
+            return prefetchDepth > 0 ? prefetchDepth : RemoteBuildPrefetcher.DEFAULT_DEPTH;
+        }
+
+        public int getMetadataTtl() {
+            return metadataTtl;
+        }
+
+        public int getPollLogMaxSize() {
+            return pollLogMaxSize;
+        }
+
+        public int getPollLogFiles() {
+            return pollLogFiles;
+        }
+
+        public int getHistoryDepth() {
+            return historyDepth;
+        }
+
+        public RemotePollLog.Verbosity getPollLogVerbosity() {
+            return pollLogVerbosity != null ? pollLogVerbosity : RemotePollLog.Verbosity.SUMMARY;
+        }
+
+        public boolean isKeepRawBuildResult() {
+            return keepRawBuildResult;
+        }
+
+        public StateFormat getStateFormat() {
+            return stateFormat != null ? stateFormat : StateFormat.JSON_PRETTY;
+        }
+
+        public boolean isStateGzip() {
+            return stateGzip;
+        }
+
+        public RemoteStateStore.Type getStateStore() {
+            return stateStore != null ? stateStore : RemoteStateStore.Type.JOB_FILE;
+        }
+
+        /**
+         * switch the state store, the state of every job is copied into the new store first,
+         * otherwise every trigger would find no checked build and fire again on old remote builds
+         *
+         * @param type state store type
+         */
+        public void setStateStore(RemoteStateStore.Type type) throws IOException {
+            RemoteStateStore.Type previous = getStateStore();
+            if (type == previous) {
+                return;
+            }
+            // 正在使用的存储是最新的，覆盖新存储中以前留下的状态，内存中缓存的旧状态丢弃
+            RemoteStateStores.migrate(previous, type, true);
+            RemoteJobResultUtils.evictCache(type);
+            stateStore = type;
+        }
+
+        public static RemoteBuildResultTriggerDescriptor get() {
+            return ExtensionList.lookupSingleton(RemoteBuildResultTriggerDescriptor.class);
+        }
     }
 }
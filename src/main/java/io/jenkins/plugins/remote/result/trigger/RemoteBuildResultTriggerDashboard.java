@@ -0,0 +1,184 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import io.jenkins.plugins.remote.result.trigger.model.RemoteJobStatus;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStore;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStores;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJenkinsServerUtils;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status of every remote job watched in this instance, served from the in-memory {@link RemoteJobStatusIndex}
+ *
+ * @author HW
+ */
+@Extension
+public class RemoteBuildResultTriggerDashboard extends ManagementLink {
+    private static final int PAGE_SIZE = 50;
+    private static final String DEFAULT_SORT = "job";
+
+    private static final Set<String> SORTS = Set.of("job", "server", "url", "lastPoll", "gap", "failures", "latency");
+
+    /**
+     * @return sort column given by ?sort
+     */
+    public String getSort() {
+        String sort = getParameter("sort");
+        return sort != null && SORTS.contains(sort) ? sort : DEFAULT_SORT;
+    }
+
+    /**
+     * @return descending order given by ?desc
+     */
+    public boolean isDesc() {
+        return getParameter("desc") != null;
+    }
+
+    /**
+     * @return current page given by ?page, starts from 0
+     */
+    public int getPage() {
+        try {
+            String page = getParameter("page");
+            return page != null ? Math.min(Math.max(0, Integer.parseInt(page)), Math.max(0, getPageCount() - 1)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public int getPageCount() {
+        return (RemoteJobStatusIndex.getStatusCount() + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    public int getTotal() {
+        return RemoteJobStatusIndex.getStatusCount();
+    }
+
+    /**
+     * @return statuses of the current page
+     */
+    public List<RemoteJobStatus> getStatuses() {
+        List<RemoteJobStatus> statuses = new ArrayList<>(RemoteJobStatusIndex.getStatuses());
+        Comparator<RemoteJobStatus> comparator = getComparator(getSort())
+                .thenComparing(RemoteJobStatus::getJobFullName)
+                .thenComparing(RemoteJobStatus::getRemoteJob);
+        statuses.sort(isDesc() ? comparator.reversed() : comparator);
+        int from = Math.min(statuses.size(), getPage() * PAGE_SIZE);
+        return statuses.subList(from, Math.min(statuses.size(), from + PAGE_SIZE));
+    }
+
+    private static Comparator<RemoteJobStatus> getComparator(String sort) {
+        return switch (sort) {
+            case "server" -> Comparator.comparing(status -> getServerName(status.getRemoteServer()));
+            case "url" -> Comparator.comparing(status -> String.valueOf(status.getRemoteJobUrl()));
+            case "lastPoll" -> Comparator.comparingLong(RemoteJobStatus::getLastPoll);
+            case "gap" -> Comparator.comparingInt(RemoteJobStatus::getGap);
+            case "failures" -> Comparator.comparingInt(RemoteJobStatus::getConsecutiveFailures);
+            case "latency" -> Comparator.comparingLong(RemoteJobStatus::getAverageLatency);
+            default -> Comparator.comparing(RemoteJobStatus::getJobFullName);
+        };
+    }
+
+    /**
+     * @return remote server id -> consecutive failed polls
+     */
+    public Map<String, Integer> getServerFailures() {
+        return RemoteJobStatusIndex.getServerFailures();
+    }
+
+    /**
+     * @return configured state store
+     */
+    public RemoteStateStore.Type getStateStore() {
+        return RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getStateStore();
+    }
+
+    /**
+     * @return state stores other than the configured one
+     */
+    public List<RemoteStateStore.Type> getOtherStateStores() {
+        return Arrays.stream(RemoteStateStore.Type.values()).filter(type -> type != getStateStore()).toList();
+    }
+
+    /**
+     * copy the state saved in another store into the configured one
+     *
+     * @param from source store type
+     */
+    @RequirePOST
+    @SuppressWarnings("unused")
+    public HttpResponse doMigrateState(@QueryParameter String from) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        RemoteStateStores.migrate(RemoteStateStore.Type.valueOf(from), getStateStore());
+        return HttpResponses.redirectToDot();
+    }
+
+    /**
+     * @param serverId remote server id
+     * @return server display name, or id if the server was deleted
+     */
+    public static String getServerName(String serverId) {
+        RemoteJenkinsServer server = serverId != null ? RemoteJenkinsServerUtils.getRemoteJenkinsServer(serverId) : null;
+        if (server == null) {
+            return String.valueOf(serverId);
+        }
+        return server.getDisplayName() != null ? server.getDisplayName() : server.getUrl();
+    }
+
+    /**
+     * @param time time (ms)
+     * @return date, null if 0
+     */
+    public static Date toDate(long time) {
+        return time > 0 ? new Date(time) : null;
+    }
+
+    private static String getParameter(String name) {
+        StaplerRequest2 req = Stapler.getCurrentRequest2();
+        return req != null ? req.getParameter(name) : null;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "symbol-details";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Remote Result Trigger Dashboard";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Poll status of every remote job watched by Remote Build Result Trigger";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "remote-result-trigger-dashboard";
+    }
+
+    @NonNull
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+}
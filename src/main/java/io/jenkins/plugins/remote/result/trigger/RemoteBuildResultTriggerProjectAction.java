@@ -1,24 +1,39 @@
 package io.jenkins.plugins.remote.result.trigger;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Functions;
-import hudson.Util;
 import hudson.console.AnnotatedLargeText;
 import hudson.model.Action;
 import hudson.model.BuildableItem;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultDisplayInfo;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.model.PollHistoryEntry;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollHistory;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollLog;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollScheduler;
+import io.jenkins.plugins.remote.result.trigger.utils.JobResultDisplayCache;
 import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.apache.commons.jelly.XMLOutput;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * log action
@@ -26,6 +41,15 @@ import java.util.List;
  * @author HW
  */
 public class RemoteBuildResultTriggerProjectAction implements Action {
+    /**
+     * poll log bytes shown by default
+     */
+    private static final long POLL_LOG_TAIL = 64 * 1024;
+    private static final int HISTORY_PAGE_SIZE = 20;
+    /**
+     * job -> rendered display infos, entries go away with deleted jobs
+     */
+    private static final Map<BuildableItem, JobResultDisplayCache> DISPLAY_CACHES = new WeakHashMap<>();
     private final BuildableItem job;
     private final File logFile;
 
@@ -35,20 +59,120 @@ public class RemoteBuildResultTriggerProjectAction implements Action {
     }
 
     public List<JobResultDisplayInfo> getJobResultDisplayInfos() throws IOException {
-        ObjectWriter jsonPretty = new ObjectMapper().writerWithDefaultPrettyPrinter();
-        List<JobResultInfo> jobResultInfos = RemoteJobResultUtils.getSavedJobInfos(job);
-        List<JobResultDisplayInfo> results = new ArrayList<>();
-        for (JobResultInfo jobResultInfo : jobResultInfos) {
-            JobResultDisplayInfo info = new JobResultDisplayInfo();
-            info.setRemoteJobUrl(jobResultInfo.getRemoteJobUrl());
-            info.setBuildUrl(jobResultInfo.getBuildUrl());
-            info.setResult(jsonPretty.writeValueAsString(jobResultInfo.getBuildResult()));
-            if (jobResultInfo.getRemoteResult() != null) {
-                info.setResultJson(jsonPretty.writeValueAsString(jobResultInfo.getRemoteResult()));
+        return getDisplayCache().getDisplayInfos();
+    }
+
+    /**
+     * json panel of a saved info, loaded when expanded
+     */
+    @SuppressWarnings("unused")
+    public void doJson(StaplerResponse2 rsp, @QueryParameter String remoteJob, @QueryParameter int number,
+                       @QueryParameter String type) throws IOException {
+        String json = getDisplayCache().getJson(remoteJob, number, type);
+        if (json == null) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        rsp.getWriter().write(json);
+    }
+
+    /**
+     * display cache of the current saved infos version
+     */
+    private JobResultDisplayCache getDisplayCache() throws IOException {
+        List<JobResultInfo> jobResultInfos = RemoteJobResultUtils.loadSavedJobInfos(job);
+        synchronized (DISPLAY_CACHES) {
+            JobResultDisplayCache cache = DISPLAY_CACHES.get(job);
+            if (cache == null || !cache.isFor(jobResultInfos)) {
+                cache = new JobResultDisplayCache(jobResultInfos);
+                DISPLAY_CACHES.put(job, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * poll history of all remote jobs for the page given by ?historyPage, newest first
+     */
+    public List<PollHistoryRow> getHistory() {
+        List<PollHistoryRow> rows = getHistoryRows();
+        int from = Math.min(rows.size(), getHistoryPage() * HISTORY_PAGE_SIZE);
+        return rows.subList(from, Math.min(rows.size(), from + HISTORY_PAGE_SIZE));
+    }
+
+    /**
+     * @return current history page, starts from 0
+     */
+    public int getHistoryPage() {
+        StaplerRequest2 req = Stapler.getCurrentRequest2();
+        String page = req != null ? req.getParameter("historyPage") : null;
+        try {
+            return page != null ? Math.max(0, Integer.parseInt(page)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return history page count
+     */
+    public int getHistoryPageCount() {
+        return (getHistoryRows().size() + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE;
+    }
+
+    private List<PollHistoryRow> getHistoryRows() {
+        Map<String, String> remoteJobUrls = new HashMap<>();
+        RemoteBuildResultTrigger trigger = RemoteBuildResultTrigger.getTrigger(job);
+        if (trigger != null) {
+            for (RemoteJobInfo jobInfo : trigger.getRemoteJobInfos()) {
+                remoteJobUrls.put(jobInfo.getId(), jobInfo.getRemoteJobUrl());
             }
-            results.add(info);
         }
-        return results;
+        List<PollHistoryRow> rows = new ArrayList<>();
+        RemotePollHistory.get(job).forEach((remoteJobId, entries) -> {
+            String remoteJobUrl = remoteJobUrls.getOrDefault(remoteJobId, remoteJobId);
+            for (PollHistoryEntry entry : entries) {
+                rows.add(new PollHistoryRow(remoteJobUrl, entry));
+            }
+        });
+        rows.sort(Comparator.comparingLong((PollHistoryRow row) -> row.getEntry().getTimestamp()).reversed());
+        return rows;
+    }
+
+    /**
+     * poll history entry with its remote job
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PollHistoryRow {
+        private final String remoteJobUrl;
+        private final PollHistoryEntry entry;
+
+        public Date getTime() {
+            return new Date(entry.getTimestamp());
+        }
+    }
+
+    /**
+     * polls waiting in the central scheduler
+     */
+    public int getPollQueueDepth() {
+        return RemotePollScheduler.get().getQueueDepth();
+    }
+
+    /**
+     * lag of the most overdue queued poll (ms)
+     */
+    public long getPollLag() {
+        return RemotePollScheduler.get().getLag();
+    }
+
+    /**
+     * poll outputs dropped because the poll log writer fell behind
+     */
+    public long getPollLogDropped() {
+        return RemotePollLog.getDropped();
     }
 
     /**
@@ -134,8 +258,61 @@ public class RemoteBuildResultTriggerProjectAction implements Action {
         new AnnotatedLargeText<>(logFile, StandardCharsets.UTF_8, true, this).writeHtmlTo(0, out.asWriter());
     }
 
-    public String getLog() throws IOException {
-        return Util.loadFile(logFile, StandardCharsets.UTF_8);
+    /**
+     * @return scheduling log of the last trigger run is empty
+     */
+    public boolean isLogEmpty() {
+        return logFile == null || logFile.length() == 0;
+    }
+
+    /**
+     * current poll log, loaded progressively by pollLogText/progressiveHtml
+     */
+    public AnnotatedLargeText<RemoteBuildResultTriggerProjectAction> getPollLogText() {
+        return new AnnotatedLargeText<>(RemotePollLog.getFile(job), StandardCharsets.UTF_8, true, this);
+    }
+
+    /**
+     * @return offset the page starts loading the poll log from, only the tail unless ?full is given
+     */
+    public long getPollLogOffset() {
+        StaplerRequest2 req = Stapler.getCurrentRequest2();
+        if (req != null && req.getParameter("full") != null) {
+            return 0;
+        }
+        return Math.max(0, RemotePollLog.getFile(job).length() - POLL_LOG_TAIL);
+    }
+
+    /**
+     * @return poll log has content beyond the tail shown
+     */
+    public boolean isPollLogTruncated() {
+        return getPollLogOffset() > 0;
+    }
+
+    /**
+     * @return indexes of rotated poll log files
+     */
+    public List<Integer> getRotatedPollLogs() {
+        List<Integer> indexes = new ArrayList<>();
+        for (int index = 1; RemotePollLog.getFile(job, index).exists(); index++) {
+            indexes.add(index);
+        }
+        return indexes;
+    }
+
+    /**
+     * download a poll log file
+     */
+    @SuppressWarnings("unused")
+    public void doPollLog(StaplerRequest2 req, StaplerResponse2 rsp, @QueryParameter int index) throws IOException {
+        File file = RemotePollLog.getFile(job, Math.max(0, index));
+        if (!file.exists()) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        Files.copy(file.toPath(), rsp.getOutputStream());
     }
 
     @SuppressWarnings("unused")
@@ -1,18 +1,19 @@
 package io.jenkins.plugins.remote.result.trigger;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Functions;
 import hudson.model.Action;
 import hudson.model.BuildableItem;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultDisplayInfo;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.utils.JobResultDisplayCache;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.export.ExportedBean;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,6 +24,7 @@ public class RemoteBuildResultTriggerScheduledAction implements Action {
     @Getter
     private final transient BuildableItem item;
     private final List<JobResultInfo> jobResultInfos;
+    private transient JobResultDisplayCache displayCache;
 
     public RemoteBuildResultTriggerScheduledAction(BuildableItem item, List<JobResultInfo> jobResultInfos) {
         this.item = item;
@@ -34,20 +36,33 @@ public class RemoteBuildResultTriggerScheduledAction implements Action {
         return jobResultInfos;
     }
 
-    public List<JobResultDisplayInfo> getJobResultDisplayInfos() throws IOException {
-        ObjectWriter jsonPretty = new ObjectMapper().writerWithDefaultPrettyPrinter();
-        List<JobResultDisplayInfo> results = new ArrayList<>();
-        for (JobResultInfo jobResultInfo : jobResultInfos) {
-            JobResultDisplayInfo info = new JobResultDisplayInfo();
-            info.setRemoteJobUrl(jobResultInfo.getRemoteJobUrl());
-            info.setBuildUrl(jobResultInfo.getBuildUrl());
-            info.setResult(jsonPretty.writeValueAsString(jobResultInfo.getBuildResult()));
-            if (jobResultInfo.getRemoteResult() != null) {
-                info.setResultJson(jsonPretty.writeValueAsString(jobResultInfo.getRemoteResult()));
-            }
-            results.add(info);
+    public List<JobResultDisplayInfo> getJobResultDisplayInfos() {
+        return getDisplayCache().getDisplayInfos();
+    }
+
+    /**
+     * json panel of a triggered info, loaded when expanded
+     */
+    @SuppressWarnings("unused")
+    public void doJson(StaplerResponse2 rsp, @QueryParameter String remoteJob, @QueryParameter int number,
+                       @QueryParameter String type) throws IOException {
+        String json = getDisplayCache().getJson(remoteJob, number, type);
+        if (json == null) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        rsp.getWriter().write(json);
+    }
+
+    /**
+     * triggered infos never change, render them once
+     */
+    private synchronized JobResultDisplayCache getDisplayCache() {
+        if (displayCache == null) {
+            displayCache = new JobResultDisplayCache(jobResultInfos);
         }
-        return results;
+        return displayCache;
     }
 
     /**
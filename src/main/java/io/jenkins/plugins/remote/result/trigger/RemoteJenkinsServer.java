@@ -6,6 +6,7 @@ import hudson.model.Descriptor;
 import hudson.util.FormValidation;
 import io.jenkins.plugins.remote.result.trigger.auth2.Auth2;
 import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
 import jenkins.model.Jenkins;
 import lombok.Getter;
 import org.apache.commons.lang.StringUtils;
@@ -31,6 +32,9 @@ public class RemoteJenkinsServer implements Describable<RemoteJenkinsServer>, Se
 
     @Serial
     private static final long serialVersionUID = -9211781849078964416L;
+    public static final int DEFAULT_SESSION_LIFETIME = 30;
+    public static final int DEFAULT_REQUEST_TIMEOUT = 30;
+    public static final int DEFAULT_MAX_RESPONSE_SIZE = 10240;
 
     /**
      * Gets the descriptor for this instance.
@@ -51,6 +55,26 @@ public class RemoteJenkinsServer implements Describable<RemoteJenkinsServer>, Se
     private boolean trustAllCertificates;
     private Auth2 auth2;
     private String url;
+    /**
+     * keep the remote session cookie instead of sending credentials on every request
+     */
+    private boolean reuseSession;
+    /**
+     * session lifetime (minutes)
+     */
+    private int sessionLifetime = DEFAULT_SESSION_LIFETIME;
+    /**
+     * http transport implementation
+     */
+    private RemoteTransport.Type transportType = RemoteTransport.Type.OKHTTP;
+    /**
+     * whole request timeout including the response body (seconds), bounds a poll against slow or stalled servers
+     */
+    private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+    /**
+     * maximum response body size (KB), larger responses are aborted while streaming
+     */
+    private int maxResponseSize = DEFAULT_MAX_RESPONSE_SIZE;
 
     @DataBoundConstructor
     public RemoteJenkinsServer() {
@@ -81,6 +105,51 @@ public class RemoteJenkinsServer implements Describable<RemoteJenkinsServer>, Se
         this.url = url;
     }
 
+    @DataBoundSetter
+    public void setReuseSession(boolean reuseSession) {
+        this.reuseSession = reuseSession;
+    }
+
+    @DataBoundSetter
+    public void setSessionLifetime(int sessionLifetime) {
+        this.sessionLifetime = sessionLifetime > 0 ? sessionLifetime : DEFAULT_SESSION_LIFETIME;
+    }
+
+    @DataBoundSetter
+    public void setTransportType(RemoteTransport.Type transportType) {
+        this.transportType = transportType != null ? transportType : RemoteTransport.Type.OKHTTP;
+    }
+
+    @DataBoundSetter
+    public void setRequestTimeout(int requestTimeout) {
+        this.requestTimeout = requestTimeout > 0 ? requestTimeout : DEFAULT_REQUEST_TIMEOUT;
+    }
+
+    @DataBoundSetter
+    public void setMaxResponseSize(int maxResponseSize) {
+        this.maxResponseSize = maxResponseSize > 0 ? maxResponseSize : DEFAULT_MAX_RESPONSE_SIZE;
+    }
+
+    /**
+     * defaults for configs saved before these settings existed
+     */
+    @Serial
+    protected Object readResolve() {
+        if (sessionLifetime <= 0) {
+            sessionLifetime = DEFAULT_SESSION_LIFETIME;
+        }
+        if (transportType == null) {
+            transportType = RemoteTransport.Type.OKHTTP;
+        }
+        if (requestTimeout <= 0) {
+            requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        }
+        if (maxResponseSize <= 0) {
+            maxResponseSize = DEFAULT_MAX_RESPONSE_SIZE;
+        }
+        return this;
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<RemoteJenkinsServer> {
 
@@ -83,17 +83,34 @@ public class RemoteJobInfo implements Describable<RemoteJobInfo>, Serializable {
     }
 
     public String getRemoteJobUrl() {
-        // 兼容老版本数据
-        if (remoteJobUrl == null && remoteJobName != null && remoteServer != null) {
-            RemoteJenkinsServer remoteServer = RemoteJenkinsServerUtils
-                    .getRemoteJenkinsServer(getRemoteServer());
-            return remoteServer.getUrl() +
-                    (remoteServer.getUrl().endsWith("/") ? "" : "/") +
-                    remoteJobName;
+        // 兼容老版本数据，加载时未能解析的在这里再尝试一次
+        if (remoteJobUrl == null) {
+            remoteJobUrl = resolveLegacyRemoteJobUrl();
         }
         return remoteJobUrl;
     }
 
+    /**
+     * resolve legacy remoteJobName to a canonical url once at load time
+     */
+    @Serial
+    protected Object readResolve() {
+        if (remoteJobUrl == null) {
+            remoteJobUrl = resolveLegacyRemoteJobUrl();
+        }
+        return this;
+    }
+
+    private String resolveLegacyRemoteJobUrl() {
+        if (remoteJobName != null && remoteServer != null) {
+            RemoteJenkinsServer server = RemoteJenkinsServerUtils.getRemoteJenkinsServer(remoteServer);
+            if (server != null && server.getUrl() != null) {
+                return server.getUrl() + (server.getUrl().endsWith("/") ? "" : "/") + remoteJobName;
+            }
+        }
+        return null;
+    }
+
     @DataBoundSetter
     public void setRemoteJobUrl(String remoteJobUrl) {
         this.remoteJobUrl = remoteJobUrl;
@@ -1,7 +1,9 @@
 package io.jenkins.plugins.remote.result.trigger;
 
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -12,18 +14,25 @@ import hudson.Launcher;
 import hudson.model.AbstractProject;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Builder;
 import io.jenkins.plugins.remote.result.trigger.exceptions.JsonNotMatchException;
+import jenkins.MasterToSlaveFileCallable;
 import jenkins.tasks.SimpleBuildStep;
+import jenkins.util.SystemProperties;
 import lombok.Getter;
+import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.util.Map;
 
 /**
@@ -33,7 +42,15 @@ import java.util.Map;
 public class RemoteResultBuilder extends Builder implements SimpleBuildStep, Serializable {
     @Serial
     private static final long serialVersionUID = -1800772775254484836L;
+    /**
+     * max size of a result json file in the workspace
+     */
+    static final long MAX_FILE_SIZE = SystemProperties.getLong(RemoteResultBuilder.class.getName() + ".maxFileSize", 10L * 1024 * 1024);
     private String result;
+    /**
+     * workspace relative result json file, used instead of {@link #result} when set
+     */
+    private String file;
 
     @DataBoundConstructor
     public RemoteResultBuilder(String result) {
@@ -45,6 +62,11 @@ public class RemoteResultBuilder extends Builder implements SimpleBuildStep, Ser
         this.result = result;
     }
 
+    @DataBoundSetter
+    public void setFile(String file) {
+        this.file = StringUtils.trimToNull(file);
+    }
+
     /**
      * Run this step.
      * <p>
@@ -64,7 +86,15 @@ public class RemoteResultBuilder extends Builder implements SimpleBuildStep, Ser
      */
     @Override
     public void perform(@NonNull Run<?, ?> run, @NonNull FilePath workspace, @NonNull EnvVars env, @NonNull Launcher launcher, @NonNull TaskListener listener) throws InterruptedException, IOException {
-        if (result != null && result.startsWith("{") && result.endsWith("}")) {
+        if (file != null) {
+            // 直接从工作空间文件流式读取，不做环境变量替换
+            FilePath resultFile = workspace.child(env.expand(file));
+            if (!resultFile.exists()) {
+                throw new JsonNotMatchException("Result json file not found:" + resultFile.getRemote());
+            }
+            Map<String, Object> result = resultFile.act(new ReadResultFileCallable(MAX_FILE_SIZE));
+            run.addAction(new RemoteResultAction(run, result));
+        } else if (result != null && result.startsWith("{") && result.endsWith("}")) {
             // envs
             String expand = run.getEnvironment(listener).expand(result);
             // 确认是map json
@@ -81,6 +111,44 @@ public class RemoteResultBuilder extends Builder implements SimpleBuildStep, Ser
         }
     }
 
+    /**
+     * Parse the result json file where it lives, only the parsed map goes over the channel
+     */
+    private static final class ReadResultFileCallable extends MasterToSlaveFileCallable<Map<String, Object>> {
+        @Serial
+        private static final long serialVersionUID = 3311581727924127412L;
+        private final long maxSize;
+
+        private ReadResultFileCallable(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public Map<String, Object> invoke(File f, VirtualChannel channel) throws IOException {
+            long size = f.length();
+            if (size > maxSize) {
+                throw new JsonNotMatchException("Result json file too large:" + f.getName()
+                        + " (" + size + " bytes, max " + maxSize + " bytes)");
+            }
+            ObjectMapper mapper = new ObjectMapper();
+            try (InputStream in = Files.newInputStream(f.toPath());
+                 JsonParser parser = mapper.getFactory().createParser(in)) {
+                // 确认是map json
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JsonNotMatchException("Not Json Map File:" + f.getName());
+                }
+                Map<String, Object> result = mapper.readValue(parser, new TypeReference<>() {
+                });
+                if (parser.nextToken() != null) {
+                    throw new JsonNotMatchException("Trailing content after json map in file:" + f.getName());
+                }
+                return result;
+            } catch (JsonProcessingException e) {
+                throw new JsonNotMatchException("Not Json Map File:" + f.getName(), e);
+            }
+        }
+    }
+
     @Symbol("pubResult")
     @Extension
     public static class DescriptorImpl extends BuildStepDescriptor<Builder> {
@@ -0,0 +1,222 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.remote.result.trigger.model.ResultCheck;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteResultWaitPoller;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteResultWaiter;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJenkinsServerUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+import jenkins.model.Jenkins;
+import lombok.Getter;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wait until a remote build completes with an expected result, without holding an executor
+ *
+ * @author HW
+ */
+@Getter
+public class WaitForRemoteResultStep extends Step {
+    private final String remoteServer;
+    private final String remoteJobUrl;
+    private List<String> results = Collections.singletonList("SUCCESS");
+    private List<ResultCheck> checks = new ArrayList<>();
+    /**
+     * timeout in minutes
+     */
+    private int timeout = 60;
+
+    @DataBoundConstructor
+    public WaitForRemoteResultStep(String remoteServer, String remoteJobUrl) {
+        this.remoteServer = remoteServer;
+        this.remoteJobUrl = remoteJobUrl;
+    }
+
+    @DataBoundSetter
+    public void setResults(List<String> results) {
+        this.results = results;
+    }
+
+    @DataBoundSetter
+    public void setChecks(List<ResultCheck> checks) {
+        this.checks = checks;
+    }
+
+    @DataBoundSetter
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new WaitForRemoteResultStepExecution(this, context);
+    }
+
+    @Extension
+    public static class WaitForRemoteResultStepDescriptor extends StepDescriptor {
+
+        /**
+         * Enumerates any kinds of context the {@link StepExecution} will treat as mandatory.
+         * When {@link StepContext#get} is called, the return value may be null in general;
+         * if your step cannot trivially handle a null value of a given kind, list that type here.
+         * The Pipeline execution engine will then signal a user error before even starting your step if called in an inappropriate context.
+         * For example, a step requesting a Launcher may only be run inside a {@code node {…}} block.
+         */
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Run.class, TaskListener.class);
+        }
+
+        /**
+         * Return a short string that is a valid identifier for programming languages.
+         * Follow the pattern {@code [a-z][A-Za-z0-9_]*}.
+         * Step will be referenced by this name when used in a programming language.
+         */
+        @Override
+        public String getFunctionName() {
+            return "waitForRemoteResult";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return "Wait for a remote build result";
+        }
+    }
+
+    public static class WaitForRemoteResultStepExecution extends StepExecution implements RemoteResultWaiter {
+        @Serial
+        private static final long serialVersionUID = -2981754437010231455L;
+        private final String remoteServer;
+        private final String remoteJobUrl;
+        private final List<String> results;
+        private final List<ResultCheck> checks;
+        private final long timeoutMillis;
+        private String serverId;
+        private String itemFullName;
+        private long deadline;
+        private volatile Integer checkedNumber;
+
+        public WaitForRemoteResultStepExecution(@NonNull WaitForRemoteResultStep step, @NonNull StepContext context) {
+            super(context);
+            this.remoteServer = step.getRemoteServer();
+            this.remoteJobUrl = StringUtils.removeEnd(step.getRemoteJobUrl(), "/");
+            this.results = new ArrayList<>(step.getResults());
+            this.checks = new ArrayList<>(step.getChecks());
+            this.timeoutMillis = TimeUnit.MINUTES.toMillis(step.getTimeout());
+        }
+
+        /**
+         * Register to the shared poller and return at once, the step finishes when the poller calls back.
+         */
+        @Override
+        public boolean start() throws Exception {
+            RemoteJenkinsServer server = RemoteJenkinsServerUtils.findRemoteJenkinsServer(remoteServer);
+            if (server == null) {
+                throw new AbortException("Remote Jenkins Server not found: " + remoteServer);
+            }
+            if (StringUtils.isEmpty(remoteJobUrl)) {
+                throw new AbortException("Remote job url is empty");
+            }
+            serverId = server.getId();
+            Run<?, ?> run = getContext().get(Run.class);
+            itemFullName = run.getParent().getFullName();
+            deadline = System.currentTimeMillis() + timeoutMillis;
+            getContext().get(TaskListener.class).getLogger()
+                    .println("Waiting for a " + results + " build of " + remoteJobUrl);
+            RemoteResultWaitPoller.get().register(this);
+            return false;
+        }
+
+        @Override
+        public void stop(@NonNull Throwable cause) throws Exception {
+            RemoteResultWaitPoller.get().unregister(this);
+            getContext().onFailure(cause);
+        }
+
+        @Override
+        public void onResume() {
+            // 重启后继续等待
+            RemoteResultWaitPoller.get().register(this);
+        }
+
+        @Override
+        public String getStatus() {
+            return "waiting for a " + results + " build of " + remoteJobUrl
+                    + (checkedNumber != null ? " after #" + checkedNumber : "");
+        }
+
+        @Override
+        public String getRemoteServer() {
+            return serverId;
+        }
+
+        @Override
+        public String getRemoteJobUrl() {
+            return remoteJobUrl;
+        }
+
+        @Override
+        public Item getItem() {
+            return Jenkins.get().getItemByFullName(itemFullName);
+        }
+
+        @Override
+        public Integer getCheckedNumber() {
+            return checkedNumber;
+        }
+
+        @Override
+        public void setCheckedNumber(int checkedNumber) {
+            this.checkedNumber = checkedNumber;
+        }
+
+        @Override
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean isMatched(SourceMap build, SourceMap resultJson) {
+            return results.contains(build.stringValue("result"))
+                    && RemoteJobResultUtils.isResultChecksPassed(checks, resultJson);
+        }
+
+        @Override
+        public void onMatched(SourceMap build, SourceMap resultJson) {
+            Map<String, Object> value = new HashMap<>();
+            value.put("number", build.integerValue("number"));
+            value.put("url", build.stringValue("url"));
+            value.put("result", build.stringValue("result"));
+            value.put("remoteResult", resultJson != null ? new HashMap<>(resultJson.getSource()) : new HashMap<>());
+            try {
+                getContext().get(TaskListener.class).getLogger()
+                        .println("Remote build matched: " + build.stringValue("url"));
+            } catch (Exception e) {
+                // do nothing
+            }
+            getContext().onSuccess(value);
+        }
+
+        @Override
+        public void onFailed(Throwable cause) {
+            getContext().onFailure(cause);
+        }
+    }
+}
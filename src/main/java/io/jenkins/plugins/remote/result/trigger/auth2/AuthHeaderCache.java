@@ -0,0 +1,90 @@
+package io.jenkins.plugins.remote.result.trigger.auth2;
+
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import hudson.util.Secret;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.exceptions.CredentialsNotFoundException;
+import jenkins.util.SystemProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolved Authorization header per (remote server, item), so requests do no credential lookups in steady state.
+ * Entries are dropped when credentials or servers are saved, and expire after a while for
+ * credentials providers that never save.
+ *
+ * @author HW
+ */
+public final class AuthHeaderCache {
+    private static final long TTL = TimeUnit.SECONDS.toMillis(
+            SystemProperties.getLong(AuthHeaderCache.class.getName() + ".ttlSeconds", 600L));
+    private static final Map<String, Entry> HEADERS = new ConcurrentHashMap<>();
+
+    private AuthHeaderCache() {
+    }
+
+    /**
+     * @param server remote server
+     * @param item   item context of the credentials
+     * @return Authorization header, null if none
+     */
+    public static String getHeader(RemoteJenkinsServer server, Item item) throws CredentialsNotFoundException {
+        if (server.getAuth2() == null) {
+            return null;
+        }
+        String key = server.getId() + "\n" + (item != null ? item.getFullName() : "");
+        long now = System.currentTimeMillis();
+        Entry entry = HEADERS.get(key);
+        if (entry == null || entry.expires < now) {
+            String header = server.getAuth2().getCredentials(item);
+            entry = new Entry(header != null ? Secret.fromString(header) : null, now + TTL);
+            HEADERS.put(key, entry);
+        }
+        return entry.header != null ? entry.header.getPlainText() : null;
+    }
+
+    /**
+     * drop headers of a remote server, e.g. after the server rejected them
+     *
+     * @param serverId remote server id
+     */
+    public static void invalidate(String serverId) {
+        HEADERS.keySet().removeIf(key -> key.startsWith(serverId + "\n"));
+    }
+
+    /**
+     * drop all headers
+     */
+    public static void invalidateAll() {
+        HEADERS.clear();
+    }
+
+    private record Entry(Secret header, long expires) {
+    }
+
+    /**
+     * credentials live in the system store, user stores and folder stores, servers in the trigger descriptor
+     */
+    @Extension
+    public static class CredentialsSaveableListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof SystemCredentialsProvider
+                    || o instanceof User
+                    || (o instanceof ItemGroup && o instanceof Item)
+                    || o instanceof RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor) {
+                invalidateAll();
+            }
+        }
+    }
+}
@@ -86,8 +86,10 @@ public class CredentialsAuth extends Auth2 {
     @Override
     public String getCredentials(Item item) throws CredentialsNotFoundException {
         if (StringUtils.isNotEmpty(this.credentialsId)) {
-            String username = getUserName(item);
-            String password = getPassword(item);
+            // 只查找一次凭据
+            UsernamePasswordCredentials creds = _getCredentials(item);
+            String username = creds.getUsername();
+            String password = creds.getPassword().getPlainText();
             return "Basic " + Base64.encodeBase64String((username + ":" + password).getBytes(StandardCharsets.UTF_8));
         }
         return null;
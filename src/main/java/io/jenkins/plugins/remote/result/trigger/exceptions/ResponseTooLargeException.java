@@ -0,0 +1,30 @@
+package io.jenkins.plugins.remote.result.trigger.exceptions;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * remote response exceeds the maximum response size of the server
+ *
+ * @author HW
+ */
+public class ResponseTooLargeException extends IOException {
+    @Serial
+    private static final long serialVersionUID = -3183925093613342281L;
+    private final long limit;
+    private final String url;
+
+    public ResponseTooLargeException(long limit, String url) {
+        super("Response exceeds the maximum size of " + (limit / 1024) + " KB, Url:" + url);
+        this.limit = limit;
+        this.url = url;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
@@ -0,0 +1,219 @@
+package io.jenkins.plugins.remote.result.trigger.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import jenkins.metrics.api.Metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Dropwizard metrics of the plugin, registered in the Jenkins metrics plugin registry
+ *
+ * @author HW
+ */
+public final class RemoteTriggerMetrics {
+    public static final String PREFIX = "remote-result-trigger";
+
+    /**
+     * requests of the poll running on current thread
+     */
+    private static final ThreadLocal<AtomicInteger> POLL_REQUESTS = new ThreadLocal<>();
+    /**
+     * fallback registry before the metrics plugin started
+     */
+    private static final MetricRegistry FALLBACK = new MetricRegistry();
+    /**
+     * remote poll timer name -> Jenkins jobs polling the remote job, the timer is removed with the last one
+     */
+    private static final Map<String, Set<String>> REMOTE_TIMER_JOBS = new ConcurrentHashMap<>();
+
+    private RemoteTriggerMetrics() {
+    }
+
+    /**
+     * @return metric registry
+     */
+    public static MetricRegistry registry() {
+        MetricRegistry registry = Metrics.metricRegistry();
+        return registry != null ? registry : FALLBACK;
+    }
+
+    /**
+     * start counting requests of a poll on current thread
+     */
+    public static void beginPoll() {
+        POLL_REQUESTS.set(new AtomicInteger());
+    }
+
+    /**
+     * wrap a task of the poll on current thread, requests it makes on another thread are counted in the poll
+     *
+     * @param task task
+     * @return task counting its requests in the current poll
+     */
+    public static <T> Callable<T> inCurrentPoll(Callable<T> task) {
+        AtomicInteger requests = POLL_REQUESTS.get();
+        return () -> {
+            // 线程池满时在轮询线程上执行，结束后恢复
+            AtomicInteger previous = POLL_REQUESTS.get();
+            POLL_REQUESTS.set(requests);
+            try {
+                return task.call();
+            } finally {
+                POLL_REQUESTS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * update poll metrics, stop counting requests
+     *
+     * @param jobName      Jenkins job full name
+     * @param remoteServer remote server id
+     * @param remoteJobUrl remote job url
+     * @param nanos        poll duration
+     */
+    public static void endPoll(String jobName, String remoteServer, String remoteJobUrl, long nanos) {
+        AtomicInteger requests = POLL_REQUESTS.get();
+        POLL_REQUESTS.remove();
+        MetricRegistry registry = registry();
+        registry.timer(MetricRegistry.name(PREFIX, "poll", "duration")).update(nanos, TimeUnit.NANOSECONDS);
+        registry.timer(MetricRegistry.name(PREFIX, "poll", "duration", "job", jobName)).update(nanos, TimeUnit.NANOSECONDS);
+        String remoteName = getRemoteTimerName(remoteServer, remoteJobUrl);
+        REMOTE_TIMER_JOBS.compute(remoteName, (name, jobs) -> {
+            Set<String> polling = jobs != null ? jobs : ConcurrentHashMap.newKeySet();
+            polling.add(jobName);
+            return polling;
+        });
+        registry.timer(remoteName).update(nanos, TimeUnit.NANOSECONDS);
+        if (requests != null) {
+            registry.histogram(MetricRegistry.name(PREFIX, "poll", "requests")).update(requests.get());
+        }
+    }
+
+    /**
+     * update http metrics
+     *
+     * @param remoteServer remote server id
+     * @param status       response status, 0 if no response
+     * @param nanos        latency including body consuming
+     * @param bytes        response body bytes read
+     */
+    public static void updateHttp(String remoteServer, int status, long nanos, long bytes) {
+        AtomicInteger requests = POLL_REQUESTS.get();
+        if (requests != null) {
+            requests.incrementAndGet();
+        }
+        MetricRegistry registry = registry();
+        registry.timer(MetricRegistry.name(PREFIX, "http", "latency", remoteServer)).update(nanos, TimeUnit.NANOSECONDS);
+        registry.meter(MetricRegistry.name(PREFIX, "http", "status", remoteServer,
+                status > 0 ? (status / 100) + "xx" : "error")).mark();
+        registry.histogram(MetricRegistry.name(PREFIX, "http", "bytes", remoteServer)).update(bytes);
+    }
+
+    /**
+     * count a response rejected for exceeding the maximum response size
+     *
+     * @param remoteServer remote server id
+     */
+    public static void markOversized(String remoteServer) {
+        registry().meter(MetricRegistry.name(PREFIX, "http", "oversized", remoteServer)).mark();
+    }
+
+    /**
+     * count a poll output dropped because the poll log writer fell behind
+     */
+    public static void markPollLogDropped() {
+        registry().meter(MetricRegistry.name(PREFIX, "poll-log", "dropped")).mark();
+    }
+
+    /**
+     * update state file read metrics
+     *
+     * @param nanos read duration
+     */
+    public static void updateStateRead(long nanos) {
+        registry().timer(MetricRegistry.name(PREFIX, "state", "read")).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * update state file write metrics
+     *
+     * @param nanos write duration
+     */
+    public static void updateStateWrite(long nanos) {
+        registry().timer(MetricRegistry.name(PREFIX, "state", "write")).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * update environment contributor metrics
+     *
+     * @param nanos contribute duration
+     */
+    public static void updateEnvContributor(long nanos) {
+        registry().timer(MetricRegistry.name(PREFIX, "env", "contributor")).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * mark a trigger fired
+     *
+     * @param jobName Jenkins job full name
+     */
+    public static void markFired(String jobName) {
+        MetricRegistry registry = registry();
+        registry.meter(MetricRegistry.name(PREFIX, "fired")).mark();
+        registry.meter(MetricRegistry.name(PREFIX, "fired", "job", jobName)).mark();
+    }
+
+    /**
+     * remove remote poll timers the job no longer polls, e.g. after its remote jobs changed
+     *
+     * @param jobName    Jenkins job full name
+     * @param remoteJobs remote jobs still polled by the job
+     */
+    public static void retainRemote(String jobName, Collection<RemoteJobInfo> remoteJobs) {
+        Set<String> kept = remoteJobs.stream()
+                .map(jobInfo -> getRemoteTimerName(jobInfo.getRemoteServer(), jobInfo.getRemoteJobUrl()))
+                .collect(Collectors.toSet());
+        releaseRemote(jobName, kept);
+    }
+
+    /**
+     * remove per job metrics, e.g. when the trigger stopped
+     *
+     * @param jobName Jenkins job full name
+     */
+    public static void removeJob(String jobName) {
+        String pollName = MetricRegistry.name(PREFIX, "poll", "duration", "job", jobName);
+        String firedName = MetricRegistry.name(PREFIX, "fired", "job", jobName);
+        registry().removeMatching((name, metric) -> name.equals(pollName) || name.equals(firedName));
+        releaseRemote(jobName, Set.of());
+    }
+
+    private static void releaseRemote(String jobName, Set<String> kept) {
+        for (String remoteName : REMOTE_TIMER_JOBS.keySet()) {
+            if (kept.contains(remoteName)) {
+                continue;
+            }
+            // 同一远程任务可能被多个任务轮询，最后一个任务不再轮询时才移除
+            REMOTE_TIMER_JOBS.computeIfPresent(remoteName, (name, jobs) -> {
+                if (!jobs.remove(jobName) || !jobs.isEmpty()) {
+                    return jobs;
+                }
+                registry().remove(name);
+                return null;
+            });
+        }
+    }
+
+    private static String getRemoteTimerName(String remoteServer, String remoteJobUrl) {
+        return MetricRegistry.name(PREFIX, "poll", "duration", "remote", remoteServer, remoteJobUrl);
+    }
+}
@@ -0,0 +1,101 @@
+package io.jenkins.plugins.remote.result.trigger.metrics;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.RootAction;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST view of the plugin metrics, e.g. /remote-result-trigger-metrics/api/json
+ *
+ * @author HW
+ */
+@Extension
+@ExportedBean
+public class RemoteTriggerMetricsAction implements RootAction {
+
+    /**
+     * @return remote api, admin only
+     */
+    public Api getApi() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        return new Api(this);
+    }
+
+    /**
+     * @return all plugin metrics sorted by name
+     */
+    @Exported
+    public List<MetricInfo> getMetrics() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        List<MetricInfo> metrics = new ArrayList<>();
+        for (Map.Entry<String, Metric> entry : RemoteTriggerMetrics.registry()
+                .getMetrics().entrySet()) {
+            if (entry.getKey().startsWith(RemoteTriggerMetrics.PREFIX + ".")) {
+                metrics.add(new MetricInfo(entry.getKey(), entry.getValue()));
+            }
+        }
+        return metrics;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Remote Result Trigger Metrics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "remote-result-trigger-metrics";
+    }
+
+    /**
+     * metric value, durations in ms
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static class MetricInfo {
+        @Exported
+        private final String name;
+        @Exported
+        private final long count;
+        @Exported
+        private final double rate;
+        @Exported
+        private final double mean;
+        @Exported
+        private final double p95;
+        @Exported
+        private final double max;
+
+        MetricInfo(String name, Metric metric) {
+            this.name = name;
+            this.count = metric instanceof Counting ? ((Counting) metric).getCount() : 0;
+            this.rate = metric instanceof Meter ? ((Meter) metric).getOneMinuteRate()
+                    : metric instanceof Timer ? ((Timer) metric).getOneMinuteRate() : 0;
+            Snapshot snapshot = metric instanceof Timer ? ((Timer) metric).getSnapshot()
+                    : metric instanceof Histogram ? ((Histogram) metric).getSnapshot() : null;
+            // timer的单位是纳秒
+            double scale = metric instanceof Timer ? TimeUnit.MILLISECONDS.toNanos(1) : 1;
+            this.mean = snapshot != null ? snapshot.getMean() / scale : 0;
+            this.p95 = snapshot != null ? snapshot.get95thPercentile() / scale : 0;
+            this.max = snapshot != null ? snapshot.getMax() / scale : 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.jenkins.plugins.remote.result.trigger.metrics;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollHistory;
+
+/**
+ * drop per job metrics, poll statuses and histories of deleted or renamed jobs
+ *
+ * @author HW
+ */
+@Extension
+public class RemoteTriggerMetricsItemListener extends ItemListener {
+    @Override
+    public void onDeleted(Item item) {
+        RemoteTriggerMetrics.removeJob(item.getFullName());
+        RemoteJobStatusIndex.remove(item.getFullName());
+        RemotePollHistory.remove(item.getFullName());
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        RemoteTriggerMetrics.removeJob(oldFullName);
+        RemoteJobStatusIndex.remove(oldFullName);
+        RemotePollHistory.remove(oldFullName);
+    }
+}
@@ -0,0 +1,116 @@
+package io.jenkins.plugins.remote.result.trigger.metrics;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+import io.jenkins.plugins.remote.result.trigger.model.RemoteJobStatus;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prometheus text format scrape endpoint of trigger health and lag, computed from the in-memory
+ * {@link RemoteJobStatusIndex}, e.g. /remote-result-trigger-prometheus/
+ *
+ * @author HW
+ */
+@Extension
+public class RemoteTriggerPrometheusAction implements RootAction {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * write all series, admin only
+     */
+    @SuppressWarnings("unused")
+    public void doIndex(StaplerRequest2 req, StaplerResponse2 rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        rsp.setContentType(CONTENT_TYPE);
+        try (PrintWriter writer = rsp.getWriter()) {
+            writeTo(writer, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * write all series
+     *
+     * @param writer writer
+     * @param now    now (ms)
+     */
+    static void writeTo(PrintWriter writer, long now) {
+        List<RemoteJobStatus> statuses = new ArrayList<>(RemoteJobStatusIndex.getStatuses());
+        statuses.sort(Comparator.comparing(RemoteJobStatus::getJobFullName).thenComparing(RemoteJobStatus::getRemoteJob));
+
+        writeHeader(writer, "remote_result_trigger_build_gap", "gauge",
+                "Remote lastBuild number minus checked build number");
+        for (RemoteJobStatus status : statuses) {
+            if (status.getLastSuccessfulPoll() > 0) {
+                writer.println("remote_result_trigger_build_gap" + labels(status) + " " + status.getGap());
+            }
+        }
+
+        writeHeader(writer, "remote_result_trigger_seconds_since_last_successful_poll", "gauge",
+                "Seconds since the last successful poll of the remote job");
+        for (RemoteJobStatus status : statuses) {
+            if (status.getLastSuccessfulPoll() > 0) {
+                writer.println("remote_result_trigger_seconds_since_last_successful_poll" + labels(status) + " "
+                        + (now - status.getLastSuccessfulPoll()) / 1000.0);
+            }
+        }
+
+        writeHeader(writer, "remote_result_trigger_fired_total", "counter",
+                "Triggers fired by the remote job since startup");
+        for (RemoteJobStatus status : statuses) {
+            writer.println("remote_result_trigger_fired_total" + labels(status) + " " + status.getFiredCount());
+        }
+
+        writeHeader(writer, "remote_result_trigger_server_consecutive_failures", "gauge",
+                "Consecutive failed polls of the remote server");
+        for (Map.Entry<String, Integer> entry : RemoteJobStatusIndex.getServerFailures().entrySet()) {
+            writer.println("remote_result_trigger_server_consecutive_failures{server=\"" + escape(entry.getKey()) + "\"} "
+                    + entry.getValue());
+        }
+    }
+
+    private static void writeHeader(PrintWriter writer, String name, String type, String help) {
+        writer.println("# HELP " + name + " " + help);
+        writer.println("# TYPE " + name + " " + type);
+    }
+
+    private static String labels(RemoteJobStatus status) {
+        return "{job=\"" + escape(status.getJobFullName())
+                + "\",server=\"" + escape(status.getRemoteServer())
+                + "\",remote_job=\"" + escape(status.getRemoteJobUrl()) + "\"}";
+    }
+
+    /**
+     * escape label value
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Remote Result Trigger Prometheus";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "remote-result-trigger-prometheus";
+    }
+}
@@ -0,0 +1,32 @@
+package io.jenkins.plugins.remote.result.trigger.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fields of a remote build kept after it triggered, instead of the whole remote build json
+ *
+ * @author HW
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BuildSummary {
+    private Integer number;
+    private String url;
+    private String result;
+    /**
+     * build start time (ms)
+     */
+    private Long timestamp;
+    /**
+     * build duration (ms)
+     */
+    private Long duration;
+    /**
+     * build parameters, name -> value
+     */
+    private Map<String, String> parameters = new LinkedHashMap<>();
+}
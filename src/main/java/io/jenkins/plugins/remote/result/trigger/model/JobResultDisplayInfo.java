@@ -7,8 +7,15 @@ import lombok.Data;
  */
 @Data
 public class JobResultDisplayInfo {
+    /**
+     * remote job id of the saved info, used to load json panels lazily
+     */
+    private String remoteJob;
+    /**
+     * triggered build number, 0 if none, a json panel of another build is not served
+     */
+    private int number;
     private String remoteJobUrl;
-    private String result;
-    private String resultJson;
     private String buildUrl;
+    private boolean hasResultJson;
 }
@@ -17,10 +17,44 @@ public class JobResultInfo {
     private String uid;
     private Integer triggeredNumber;
     private Integer checkedNumber;
+    /**
+     * matched by an async poll, waiting for the trigger to schedule a build
+     */
+    private boolean pending;
+    /**
+     * summary of the triggered remote build
+     */
+    private BuildSummary build;
+    /**
+     * raw remote build json, only kept when enabled in the global configuration
+     */
     private Map<String, Object> buildResult;
     private Map<String, Object> remoteResult;
 
+    /**
+     * shallow copy, saved infos are shared and never changed in place
+     *
+     * @return copy
+     */
+    public JobResultInfo copy() {
+        JobResultInfo copy = new JobResultInfo();
+        copy.setRemoteServer(remoteServer);
+        copy.setRemoteJob(remoteJob);
+        copy.setRemoteJobUrl(remoteJobUrl);
+        copy.setUid(uid);
+        copy.setTriggeredNumber(triggeredNumber);
+        copy.setCheckedNumber(checkedNumber);
+        copy.setPending(pending);
+        copy.setBuild(build);
+        copy.setBuildResult(buildResult);
+        copy.setRemoteResult(remoteResult);
+        return copy;
+    }
+
     public String getBuildUrl() {
+        if (build != null) {
+            return build.getUrl();
+        }
         if (buildResult != null && buildResult.get("url") != null) {
             return buildResult.get("url").toString();
         }
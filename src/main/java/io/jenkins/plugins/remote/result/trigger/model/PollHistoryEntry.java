@@ -0,0 +1,54 @@
+package io.jenkins.plugins.remote.result.trigger.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+/**
+ * Outcome of a remote job poll, persisted as a json array
+ *
+ * @author HW
+ */
+@Data
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"timestamp", "number", "result", "verdict", "latency"})
+public class PollHistoryEntry {
+    /**
+     * poll time (ms)
+     */
+    private long timestamp;
+    /**
+     * matched build number, or the newest build evaluated
+     */
+    private Integer number;
+    private String result;
+    private Verdict verdict = Verdict.NO_NEW_BUILD;
+    /**
+     * poll duration (ms)
+     */
+    private long latency;
+
+    public enum Verdict {
+        /**
+         * no build newer than checked number
+         */
+        NO_NEW_BUILD,
+        /**
+         * result not in trigger results
+         */
+        RESULT_SKIPPED,
+        /**
+         * result json checks failed
+         */
+        CHECK_FAILED,
+        /**
+         * remote build is still building
+         */
+        BUILDING,
+        /**
+         * trigger fired
+         */
+        MATCHED,
+        ERROR
+    }
+}
@@ -0,0 +1,100 @@
+package io.jenkins.plugins.remote.result.trigger.model;
+
+import lombok.Getter;
+
+/**
+ * In-memory poll status of a remote job of a trigger, updated by the poller
+ *
+ * @author HW
+ */
+@Getter
+public class RemoteJobStatus {
+    private final String jobFullName;
+    private final String remoteJob;
+    private volatile String remoteServer;
+    private volatile String remoteJobUrl;
+    /**
+     * remote lastBuild number of the last poll
+     */
+    private volatile int lastBuildNumber;
+    /**
+     * checked number after the last poll
+     */
+    private volatile int checkedNumber;
+    /**
+     * last poll time (ms), 0 if never polled
+     */
+    private volatile long lastPoll;
+    /**
+     * last successful poll time (ms), 0 if never succeeded
+     */
+    private volatile long lastSuccessfulPoll;
+    private volatile String lastError;
+    /**
+     * failed polls since the last successful one
+     */
+    private volatile int consecutiveFailures;
+    private volatile long pollCount;
+    private volatile long totalLatency;
+    private volatile long firedCount;
+    /**
+     * last fired time (ms), 0 if never fired
+     */
+    private volatile long lastFired;
+
+    public RemoteJobStatus(String jobFullName, String remoteJob) {
+        this.jobFullName = jobFullName;
+        this.remoteJob = remoteJob;
+    }
+
+    /**
+     * @return average poll latency (ms)
+     */
+    public long getAverageLatency() {
+        long count = pollCount;
+        return count > 0 ? totalLatency / count : 0;
+    }
+
+    /**
+     * remote lastBuild minus checked number, builds held back by a running remote build
+     *
+     * @return gap, 0 if not polled yet
+     */
+    public int getGap() {
+        return Math.max(0, lastBuildNumber - checkedNumber);
+    }
+
+    public synchronized void onPollSucceeded(String remoteServer, String remoteJobUrl, int lastBuildNumber, int checkedNumber) {
+        this.remoteServer = remoteServer;
+        this.remoteJobUrl = remoteJobUrl;
+        this.lastBuildNumber = lastBuildNumber;
+        this.checkedNumber = checkedNumber;
+        this.lastPoll = System.currentTimeMillis();
+        this.lastSuccessfulPoll = lastPoll;
+        this.lastError = null;
+        this.consecutiveFailures = 0;
+    }
+
+    public synchronized void onPollFailed(String remoteServer, String remoteJobUrl, String error) {
+        this.remoteServer = remoteServer;
+        this.remoteJobUrl = remoteJobUrl;
+        this.lastPoll = System.currentTimeMillis();
+        this.lastError = error;
+        this.consecutiveFailures++;
+    }
+
+    public synchronized void update(String remoteServer, String remoteJobUrl) {
+        this.remoteServer = remoteServer;
+        this.remoteJobUrl = remoteJobUrl;
+    }
+
+    public synchronized void onPollFinished(long latency) {
+        this.pollCount++;
+        this.totalLatency += latency;
+    }
+
+    public synchronized void onFired() {
+        this.firedCount++;
+        this.lastFired = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,118 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.model.Item;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches the candidate builds of a poll ahead of their evaluation. Builds are still handed out newest first,
+ * the first one is fetched alone, once it didn't match the next builds are fetched concurrently
+ * up to the prefetch depth, and fetches not taken yet are cancelled when the poll stops.
+ *
+ * @author HW
+ */
+public class RemoteBuildPrefetcher implements AutoCloseable {
+    public static final int DEFAULT_DEPTH = 4;
+    private static final int MAX_THREADS = Integer.getInteger(RemoteBuildPrefetcher.class.getName() + ".maxThreads", 16);
+
+    /**
+     * shared by all polls, a saturated pool makes the poll thread fetch by itself
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new NamingThreadFactory(new DaemonThreadFactory(), "RemoteBuildPrefetcher"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private final Item job;
+    private final RemoteJobInfo jobInfo;
+    /**
+     * candidate build numbers, newest first
+     */
+    private final List<Integer> numbers;
+    private final int depth;
+    /**
+     * index -> fetch not taken yet
+     */
+    private final Map<Integer, Future<SourceMap>> fetches = new HashMap<>();
+    private int next;
+    private int window = 1;
+
+    /**
+     * @param job     Jenkins job
+     * @param jobInfo remote Job info
+     * @param numbers candidate build numbers, newest first
+     * @param depth   builds fetched concurrently, 1 fetches one after another
+     */
+    public RemoteBuildPrefetcher(Item job, RemoteJobInfo jobInfo, List<Integer> numbers, int depth) {
+        this.job = job;
+        this.jobInfo = jobInfo;
+        this.numbers = numbers;
+        this.depth = Math.max(1, depth);
+    }
+
+    /**
+     * @return candidate build count
+     */
+    public int size() {
+        return numbers.size();
+    }
+
+    /**
+     * @param index candidate index, taken in order
+     * @return api result of the candidate build
+     */
+    public SourceMap get(int index) throws IOException, UnSuccessfulRequestStatusException {
+        int end = Math.min(numbers.size(), index + window);
+        while (next < end) {
+            int number = numbers.get(next);
+            fetches.put(next, EXECUTOR.submit(RemoteTriggerMetrics.inCurrentPoll(
+                    () -> RemoteJobResultUtils.requestBuildResult(job, jobInfo, number))));
+            next++;
+        }
+        // 最新的构建没有命中后才开始预取
+        window = depth;
+        Future<SourceMap> fetch = fetches.remove(index);
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Fetch of build " + numbers.get(index) + " interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof UnSuccessfulRequestStatusException statusException) {
+                throw statusException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * cancel the fetches not taken
+     */
+    @Override
+    public void close() {
+        for (Future<SourceMap> fetch : fetches.values()) {
+            fetch.cancel(true);
+        }
+        fetches.clear();
+    }
+}
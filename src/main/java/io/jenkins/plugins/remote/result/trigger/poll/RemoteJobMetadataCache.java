@@ -0,0 +1,142 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job level metadata of remote jobs (first build, existence) per (remote server, remote job), shared by all triggers
+ * polling the same remote job. Only the first build is requested from the job json, and it is requested again only
+ * after the TTL, when the last build number went backwards, or when the cached first build would bound the builds
+ * to check. Missing jobs are remembered as well and retried with an exponential backoff up to the TTL.
+ *
+ * @author HW
+ */
+public final class RemoteJobMetadataCache {
+    /**
+     * seconds
+     */
+    public static final int DEFAULT_TTL = 600;
+    private static final long MISSING_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+    private static final int MAX_BACKOFF_SHIFT = 16;
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private RemoteJobMetadataCache() {
+    }
+
+    /**
+     * fail fast while a remote job known to be missing is backed off
+     *
+     * @param jobInfo remote Job info
+     */
+    public static void checkExists(RemoteJobInfo jobInfo) throws UnSuccessfulRequestStatusException {
+        Entry entry = ENTRIES.get(getKey(jobInfo));
+        if (entry != null && entry.missing() && entry.expires() > System.currentTimeMillis()) {
+            throw newNotFound(jobInfo);
+        }
+    }
+
+    /**
+     * metadata of the remote job, cached until the TTL
+     *
+     * @param job     Jenkins job
+     * @param jobInfo remote Job info
+     * @return metadata, null if remote server configuration deleted
+     */
+    public static Entry get(Item job, RemoteJobInfo jobInfo) throws UnSuccessfulRequestStatusException, IOException {
+        Entry entry = ENTRIES.get(getKey(jobInfo));
+        if (entry != null && entry.expires() > System.currentTimeMillis()) {
+            if (entry.missing()) {
+                throw newNotFound(jobInfo);
+            }
+            return entry;
+        }
+        return refresh(job, jobInfo, 0);
+    }
+
+    /**
+     * @param job             Jenkins job
+     * @param jobInfo         remote Job info
+     * @param lastBuildNumber last build number of this poll
+     * @param checkedNumber   checked build number
+     * @return first build number, null if unknown
+     */
+    public static Integer getFirstBuildNumber(Item job, RemoteJobInfo jobInfo, int lastBuildNumber, int checkedNumber)
+            throws UnSuccessfulRequestStatusException, IOException {
+        Entry entry = ENTRIES.get(getKey(jobInfo));
+        if (entry != null && !entry.missing() && entry.expires() > System.currentTimeMillis()
+                // 最新构建号回退，远程任务可能被重建
+                && lastBuildNumber >= entry.lastBuildNumber()
+                // 首个构建限制了检查范围时需要准确的值，旧构建可能已被轮转删除
+                && entry.firstBuildNumber() != null && entry.firstBuildNumber() - 1 <= checkedNumber) {
+            if (lastBuildNumber > entry.lastBuildNumber()) {
+                ENTRIES.put(getKey(jobInfo), new Entry(entry.firstBuildNumber(), lastBuildNumber, false, 0, entry.expires()));
+            }
+            return entry.firstBuildNumber();
+        }
+        entry = refresh(job, jobInfo, lastBuildNumber);
+        return entry != null ? entry.firstBuildNumber() : null;
+    }
+
+    /**
+     * drop all metadata, e.g. after remote servers changed
+     */
+    public static void invalidateAll() {
+        ENTRIES.clear();
+    }
+
+    private static Entry refresh(Item job, RemoteJobInfo jobInfo, int lastBuildNumber)
+            throws UnSuccessfulRequestStatusException, IOException {
+        String key = getKey(jobInfo);
+        long now = System.currentTimeMillis();
+        long ttl = TimeUnit.SECONDS.toMillis(RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getMetadataTtl());
+        SourceMap info;
+        try {
+            info = RemoteJobResultUtils.requestJobInfo(job, jobInfo);
+        } catch (UnSuccessfulRequestStatusException e) {
+            if (e.getStatus() == 404) {
+                // 任务不存在，退避时间逐次翻倍
+                Entry previous = ENTRIES.get(key);
+                int misses = previous != null && previous.missing() ? previous.misses() + 1 : 1;
+                long backoff = Math.min(MISSING_BACKOFF << Math.min(misses - 1, MAX_BACKOFF_SHIFT), ttl);
+                ENTRIES.put(key, new Entry(null, 0, true, misses, now + backoff));
+            }
+            throw e;
+        }
+        if (info == null) {
+            return null;
+        }
+        SourceMap firstBuild = info.sourceMap("firstBuild");
+        Entry entry = new Entry(firstBuild != null ? firstBuild.integerValue("number") : null,
+                lastBuildNumber, false, 0, now + ttl);
+        ENTRIES.put(key, entry);
+        return entry;
+    }
+
+    private static UnSuccessfulRequestStatusException newNotFound(RemoteJobInfo jobInfo) {
+        return new UnSuccessfulRequestStatusException("Remote job not found, retry after backoff", 404,
+                jobInfo.getRemoteJobUrl());
+    }
+
+    private static String getKey(RemoteJobInfo jobInfo) {
+        return jobInfo.getRemoteServer() + "\n" + jobInfo.getRemoteJobUrl();
+    }
+
+    /**
+     * @param firstBuildNumber first build number, null if the remote job has no build
+     * @param lastBuildNumber  last build number when requested
+     * @param missing          remote job not found
+     * @param misses           consecutive not found requests
+     * @param expires          expire time (ms)
+     */
+    public record Entry(Integer firstBuildNumber, int lastBuildNumber, boolean missing, int misses, long expires) {
+    }
+}
@@ -0,0 +1,143 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.model.RemoteJobStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of remote job poll status, updated incrementally by the poller,
+ * so monitoring never has to read every job's state file.
+ *
+ * @author HW
+ */
+public final class RemoteJobStatusIndex {
+    /**
+     * jobFullName -> remoteJobId -> status, retain/remove of a job only touch its own statuses
+     */
+    private static final Map<String, Map<String, RemoteJobStatus>> STATUSES = new ConcurrentHashMap<>();
+    /**
+     * remote server id -> consecutive failed polls
+     */
+    private static final Map<String, AtomicInteger> SERVER_FAILURES = new ConcurrentHashMap<>();
+
+    private RemoteJobStatusIndex() {
+    }
+
+    private static RemoteJobStatus getOrCreate(String jobFullName, RemoteJobInfo jobInfo) {
+        return STATUSES.computeIfAbsent(jobFullName, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(jobInfo.getId(), key -> new RemoteJobStatus(jobFullName, key));
+    }
+
+    /**
+     * register a configured remote job, so it is listed before its first poll
+     *
+     * @param jobFullName Jenkins job full name
+     * @param jobInfo     remote job
+     */
+    public static void register(String jobFullName, RemoteJobInfo jobInfo) {
+        getOrCreate(jobFullName, jobInfo).update(jobInfo.getRemoteServer(), jobInfo.getRemoteJobUrl());
+    }
+
+    /**
+     * record a finished poll
+     *
+     * @param jobFullName Jenkins job full name
+     * @param jobInfo     remote job
+     * @param latency     poll duration (ms)
+     */
+    public static void onPollFinished(String jobFullName, RemoteJobInfo jobInfo, long latency) {
+        getOrCreate(jobFullName, jobInfo).onPollFinished(latency);
+    }
+
+    /**
+     * record a successful poll
+     *
+     * @param jobFullName     Jenkins job full name
+     * @param jobInfo         remote job
+     * @param lastBuildNumber remote lastBuild number
+     * @param checkedNumber   checked number after the poll
+     */
+    public static void onPollSucceeded(String jobFullName, RemoteJobInfo jobInfo, int lastBuildNumber, int checkedNumber) {
+        getOrCreate(jobFullName, jobInfo).onPollSucceeded(jobInfo.getRemoteServer(), jobInfo.getRemoteJobUrl(),
+                lastBuildNumber, checkedNumber);
+        SERVER_FAILURES.computeIfAbsent(jobInfo.getRemoteServer(), key -> new AtomicInteger()).set(0);
+    }
+
+    /**
+     * record a failed poll
+     *
+     * @param jobFullName Jenkins job full name
+     * @param jobInfo     remote job
+     * @param error       error message
+     */
+    public static void onPollFailed(String jobFullName, RemoteJobInfo jobInfo, String error) {
+        getOrCreate(jobFullName, jobInfo).onPollFailed(jobInfo.getRemoteServer(), jobInfo.getRemoteJobUrl(), error);
+        SERVER_FAILURES.computeIfAbsent(jobInfo.getRemoteServer(), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * record a fired trigger
+     *
+     * @param jobFullName Jenkins job full name
+     * @param jobInfo     remote job
+     */
+    public static void onFired(String jobFullName, RemoteJobInfo jobInfo) {
+        getOrCreate(jobFullName, jobInfo).onFired();
+    }
+
+    /**
+     * drop statuses of remote jobs no longer configured
+     *
+     * @param jobFullName  Jenkins job full name
+     * @param remoteJobIds configured remote job ids
+     */
+    public static void retain(String jobFullName, Set<String> remoteJobIds) {
+        Map<String, RemoteJobStatus> statuses = STATUSES.get(jobFullName);
+        if (statuses != null) {
+            statuses.keySet().retainAll(remoteJobIds);
+        }
+    }
+
+    /**
+     * drop statuses of a Jenkins job
+     *
+     * @param jobFullName Jenkins job full name
+     */
+    public static void remove(String jobFullName) {
+        STATUSES.remove(jobFullName);
+    }
+
+    /**
+     * @return snapshot of all statuses
+     */
+    public static Collection<RemoteJobStatus> getStatuses() {
+        List<RemoteJobStatus> statuses = new ArrayList<>();
+        STATUSES.values().forEach(job -> statuses.addAll(job.values()));
+        return Collections.unmodifiableList(statuses);
+    }
+
+    /**
+     * @return number of statuses
+     */
+    public static int getStatusCount() {
+        return STATUSES.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * @return remote server id -> consecutive failed polls
+     */
+    public static Map<String, Integer> getServerFailures() {
+        Map<String, Integer> failures = new TreeMap<>();
+        SERVER_FAILURES.forEach((server, count) -> failures.put(server, count.get()));
+        return failures;
+    }
+}
@@ -0,0 +1,190 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.init.Terminator;
+import hudson.model.Item;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.model.PollHistoryEntry;
+import jenkins.util.SystemProperties;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded poll history per remote job, kept in memory and persisted compactly
+ * in remote-build-result-history.json of the job. Changes are flushed by a single
+ * background writer after a short delay, so the polls of a tick share one write.
+ *
+ * @author HW
+ */
+public final class RemotePollHistory {
+    private static final Logger LOGGER = Logger.getLogger(RemotePollHistory.class.getName());
+    public static final int DEFAULT_DEPTH = 20;
+    private static final String FILE_NAME = "remote-build-result-history.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * job full name -> remote job id -> entries, oldest first
+     */
+    private static final Map<String, Map<String, Deque<PollHistoryEntry>>> HISTORIES = new ConcurrentHashMap<>();
+    /**
+     * job full name -> job with changes not written yet
+     */
+    private static final Map<String, Item> DIRTY = new ConcurrentHashMap<>();
+    private static final long FLUSH_DELAY = SystemProperties.getLong(
+            RemotePollHistory.class.getName() + ".flushDelaySeconds", 5L);
+    private static final ScheduledExecutorService WRITER = new ScheduledThreadPoolExecutor(1,
+            new NamingThreadFactory(new DaemonThreadFactory(), "RemotePollHistory"));
+
+    private RemotePollHistory() {
+    }
+
+    /**
+     * add a poll outcome, the oldest one is dropped once depth is reached
+     *
+     * @param job         Jenkins job
+     * @param remoteJobId remote job id
+     * @param entry       poll outcome
+     */
+    public static void add(Item job, String remoteJobId, PollHistoryEntry entry) {
+        int depth = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getHistoryDepth();
+        Map<String, Deque<PollHistoryEntry>> histories = load(job);
+        synchronized (histories) {
+            Deque<PollHistoryEntry> entries = histories.computeIfAbsent(remoteJobId, key -> new ArrayDeque<>());
+            entries.addLast(entry);
+            while (entries.size() > depth) {
+                entries.removeFirst();
+            }
+        }
+        markDirty(job);
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return remote job id -> entries, newest first
+     */
+    public static Map<String, List<PollHistoryEntry>> get(Item job) {
+        Map<String, Deque<PollHistoryEntry>> histories = load(job);
+        Map<String, List<PollHistoryEntry>> result = new LinkedHashMap<>();
+        synchronized (histories) {
+            histories.forEach((remoteJobId, entries) -> {
+                List<PollHistoryEntry> list = new ArrayList<>(entries.size());
+                entries.descendingIterator().forEachRemaining(list::add);
+                result.put(remoteJobId, list);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * drop histories of remote jobs no longer configured
+     *
+     * @param job          Jenkins job
+     * @param remoteJobIds configured remote job ids
+     */
+    public static void retain(Item job, Set<String> remoteJobIds) {
+        Map<String, Deque<PollHistoryEntry>> histories = HISTORIES.get(job.getFullName());
+        if (histories != null) {
+            boolean changed;
+            synchronized (histories) {
+                changed = histories.keySet().retainAll(remoteJobIds);
+            }
+            if (changed) {
+                markDirty(job);
+            }
+        }
+    }
+
+    /**
+     * drop the in-memory history of a job
+     *
+     * @param jobFullName Jenkins job full name
+     */
+    public static void remove(String jobFullName) {
+        DIRTY.remove(jobFullName);
+        HISTORIES.remove(jobFullName);
+    }
+
+    /**
+     * write pending changes of every job, e.g. on shutdown
+     */
+    @Terminator
+    public static void flushAll() {
+        DIRTY.keySet().forEach(RemotePollHistory::flush);
+    }
+
+    private static Map<String, Deque<PollHistoryEntry>> load(Item job) {
+        return HISTORIES.computeIfAbsent(job.getFullName(), key -> {
+            Map<String, Deque<PollHistoryEntry>> histories = new LinkedHashMap<>();
+            File file = getFile(job);
+            if (file.exists()) {
+                try {
+                    Map<String, List<PollHistoryEntry>> saved = MAPPER.readValue(file, new TypeReference<>() {
+                    });
+                    saved.forEach((remoteJobId, entries) -> histories.put(remoteJobId, new ArrayDeque<>(entries)));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Can't read remote poll history " + file, e);
+                }
+            }
+            return histories;
+        });
+    }
+
+    private static void markDirty(Item job) {
+        // 已有待写入的变更时由同一次写入带上
+        if (DIRTY.put(job.getFullName(), job) == null) {
+            WRITER.schedule(() -> flush(job.getFullName()), FLUSH_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private static synchronized void flush(String jobFullName) {
+        Item job = DIRTY.remove(jobFullName);
+        Map<String, Deque<PollHistoryEntry>> histories = HISTORIES.get(jobFullName);
+        if (job == null || histories == null) {
+            return;
+        }
+        File file = getFile(job);
+        try {
+            byte[] bytes;
+            synchronized (histories) {
+                bytes = MAPPER.writeValueAsBytes(histories);
+            }
+            FileUtils.forceMkdirParent(file);
+            // 先写临时文件再原子替换，不会留下写了一半的文件
+            File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            try {
+                Files.write(tmp.toPath(), bytes);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Can't write remote poll history " + file, e);
+        }
+    }
+
+    private static File getFile(Item job) {
+        return new File(job.getRootDir(), FILE_NAME);
+    }
+}
@@ -0,0 +1,151 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.model.Item;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Size capped, rotating poll log of a job, polls buffer their output in memory
+ * and it is appended by a single background writer.
+ *
+ * @author HW
+ */
+public final class RemotePollLog {
+    private static final Logger LOGGER = Logger.getLogger(RemotePollLog.class.getName());
+    public static final int DEFAULT_MAX_SIZE_KB = 1024;
+    public static final int DEFAULT_MAX_FILES = 3;
+    private static final String FILE_NAME = "remote-build-result-poll.log";
+
+    /**
+     * poll outputs dropped because the writer queue was full
+     */
+    private static final AtomicLong DROPPED = new AtomicLong();
+    /**
+     * single writer keeps appends of a file ordered, poll outputs are dropped and counted when the queue is full
+     */
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(1000),
+            new NamingThreadFactory(new DaemonThreadFactory(), "RemotePollLog"),
+            (task, executor) -> {
+                // 不能在轮询线程上写入，否则同一文件会有多个写入者
+                DROPPED.incrementAndGet();
+                RemoteTriggerMetrics.markPollLogDropped();
+            });
+
+    /**
+     * log verbosity
+     */
+    public enum Verbosity {
+        /**
+         * poll steps only
+         */
+        SUMMARY,
+        /**
+         * also dump remote build payloads
+         */
+        FULL
+    }
+
+    private RemotePollLog() {
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return current poll log file
+     */
+    public static File getFile(Item job) {
+        return new File(job.getRootDir(), FILE_NAME);
+    }
+
+    /**
+     * @param job   Jenkins job
+     * @param index 0 for the current file, 1.. for rotated files
+     * @return poll log file
+     */
+    public static File getFile(Item job, int index) {
+        return index == 0 ? getFile(job) : new File(job.getRootDir(), FILE_NAME + "." + index);
+    }
+
+    /**
+     * @return poll outputs dropped since startup because the writer fell behind
+     */
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    /**
+     * @return log payload dumps
+     */
+    public static boolean isFull() {
+        return RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getPollLogVerbosity() == Verbosity.FULL;
+    }
+
+    /**
+     * append a poll output asynchronously
+     *
+     * @param job   Jenkins job
+     * @param bytes poll output
+     */
+    public static void append(Item job, byte[] bytes) {
+        if (bytes.length == 0) {
+            return;
+        }
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor descriptor = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get();
+        long maxSize = descriptor.getPollLogMaxSize() * 1024L;
+        int maxFiles = descriptor.getPollLogFiles();
+        File file = getFile(job);
+        // 单次输出超过上限时只保留末尾
+        byte[] content = bytes.length > maxSize ? Arrays.copyOfRange(bytes, (int) (bytes.length - maxSize), bytes.length) : bytes;
+        WRITER.execute(() -> write(file, content, maxSize, maxFiles));
+    }
+
+    private static void write(File file, byte[] bytes, long maxSize, int maxFiles) {
+        try {
+            if (file.length() + bytes.length > maxSize) {
+                rotate(file, maxFiles);
+            }
+            Files.write(file.toPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Can't write remote poll log " + file, e);
+        }
+    }
+
+    /**
+     * log -> log.1 -> ... -> log.(maxFiles - 1), the oldest is dropped
+     */
+    private static void rotate(File file, int maxFiles) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        File parent = file.getParentFile();
+        String name = file.getName();
+        Files.deleteIfExists(new File(parent, name + "." + (maxFiles - 1)).toPath());
+        for (int index = maxFiles - 2; index >= 1; index--) {
+            File rotated = new File(parent, name + "." + index);
+            if (rotated.exists()) {
+                Files.move(rotated.toPath(), new File(parent, name + "." + (index + 1)).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file.toPath(), new File(parent, name + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Central scheduler of all remote job polls.
+ * <p>
+ * Each poll gets a fixed slot inside its interval computed from its key (like {@code H} in cron),
+ * so triggers sharing the same cron don't hit remote servers at the same second.
+ * Polls are queued by due time and run on a dedicated bounded pool, never on the xtrigger thread.
+ *
+ * @author HW
+ */
+@Extension
+public class RemotePollScheduler {
+    private static final Logger LOGGER = Logger.getLogger(RemotePollScheduler.class.getName());
+    public static final int DEFAULT_POOL_SIZE = 4;
+    public static final int DEFAULT_RAMP_RATE = 10;
+
+    /**
+     * delay queue ordered by due time, with a bounded worker pool
+     */
+    private final ScheduledThreadPoolExecutor executor;
+    /**
+     * queued polls by key, a key is never queued twice
+     */
+    private final Map<String, PollTask> pending = new ConcurrentHashMap<>();
+    /**
+     * running polls by key, the same key never runs concurrently
+     */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private volatile long lastLag;
+    /**
+     * polls admitted per second after startup, 0 to disable ramp-up
+     */
+    private volatile int rampRate = DEFAULT_RAMP_RATE;
+    private volatile boolean ramping = true;
+    private volatile long rampStart;
+    private final AtomicLong rampCursor = new AtomicLong();
+    private final AtomicInteger rampAdmitted = new AtomicInteger();
+
+    public RemotePollScheduler() {
+        executor = new ScheduledThreadPoolExecutor(DEFAULT_POOL_SIZE,
+                new NamingThreadFactory(new DaemonThreadFactory(), "RemotePollScheduler"));
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public static RemotePollScheduler get() {
+        return ExtensionList.lookupSingleton(RemotePollScheduler.class);
+    }
+
+    @Initializer(after = InitMilestone.SYSTEM_CONFIG_LOADED)
+    public static void init() {
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor descriptor = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get();
+        get().setPoolSize(descriptor.getPollThreads());
+        get().setRampRate(descriptor.getRampRate());
+    }
+
+    /**
+     * stop running polls and drop queued ones, the next start polls again
+     */
+    @Terminator
+    public static void shutdown() {
+        RemotePollScheduler scheduler = get();
+        scheduler.executor.shutdownNow();
+        scheduler.pending.clear();
+    }
+
+    /**
+     * change pool size
+     *
+     * @param poolSize max concurrent polls
+     */
+    public void setPoolSize(int poolSize) {
+        executor.setCorePoolSize(Math.max(1, poolSize));
+    }
+
+    /**
+     * change ramp-up rate
+     *
+     * @param rampRate polls admitted per second after startup, 0 to disable ramp-up
+     */
+    public void setRampRate(int rampRate) {
+        this.rampRate = Math.max(0, rampRate);
+    }
+
+    /**
+     * @return still ramping up after startup
+     */
+    public boolean isRamping() {
+        return ramping && rampRate > 0;
+    }
+
+    /**
+     * queue a poll in its slot of the current interval
+     *
+     * @param key      unique poll key, also used to compute the slot
+     * @param interval poll interval (ms)
+     * @param poll     poll
+     * @return false if the key is already queued or running, or Jenkins is shutting down
+     */
+    public boolean schedule(String key, long interval, Runnable poll) {
+        if (executor.isShutdown() || running.contains(key) || pending.containsKey(key)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long due = getSlot(key, interval, now);
+        if (isRamping()) {
+            due = Math.max(due, getRampSlot(now));
+        }
+        PollTask task = new PollTask(key, due, poll);
+        if (running.contains(key) || pending.putIfAbsent(key, task) != null) {
+            return false;
+        }
+        task.future = executor.schedule(task, Math.max(0, due - now), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * cancel queued polls
+     *
+     * @param keyPrefix key prefix
+     */
+    public void cancel(String keyPrefix) {
+        pending.values().removeIf(task -> {
+            if (task.key.startsWith(keyPrefix)) {
+                if (task.future != null) {
+                    task.future.cancel(false);
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * @return polls waiting for their slot or for a free worker
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * @return how long the most overdue queued poll has been waiting for a worker (ms)
+     */
+    public long getLag() {
+        long now = System.currentTimeMillis();
+        long lag = 0;
+        for (PollTask task : pending.values()) {
+            lag = Math.max(lag, now - task.due);
+        }
+        return lag;
+    }
+
+    /**
+     * @return lag of the last started poll (ms)
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+
+    /**
+     * Deterministic slot of the key in the interval starting at the tick
+     *
+     * @param key      poll key
+     * @param interval poll interval (ms)
+     * @param now      trigger tick (ms)
+     * @return due time (ms)
+     */
+    static long getSlot(String key, long interval, long now) {
+        if (interval <= 0) {
+            return now;
+        }
+        // 相对触发时间偏移，不依赖周期与纪元对齐，H/15、30 * * * *等cron同样分散
+        return now + Math.floorMod(key.hashCode(), interval);
+    }
+
+    /**
+     * After startup polls are admitted at most {@link #rampRate} per second,
+     * ramp-up ends once the admitted polls no longer delay new ones.
+     *
+     * @param now now (ms)
+     * @return earliest due time (ms)
+     */
+    private long getRampSlot(long now) {
+        long step = Math.max(1, 1000L / rampRate);
+        if (rampAdmitted.get() > 0 && rampCursor.get() < now) {
+            ramping = false;
+            LOGGER.info("Remote poll ramp-up complete: " + rampAdmitted.get() + " polls admitted in "
+                    + (now - rampStart) + "ms");
+            return now;
+        }
+        if (rampAdmitted.getAndIncrement() == 0) {
+            rampStart = now;
+        }
+        return rampCursor.updateAndGet(cursor -> Math.max(cursor, now) + step) - step;
+    }
+
+    private final class PollTask implements Runnable {
+        private final String key;
+        private final long due;
+        private final Runnable poll;
+        private volatile ScheduledFuture<?> future;
+
+        private PollTask(String key, long due, Runnable poll) {
+            this.key = key;
+            this.due = due;
+            this.poll = poll;
+        }
+
+        @Override
+        public void run() {
+            if (!running.add(key)) {
+                // 上一次还没有完成，跳过
+                pending.remove(key, this);
+                return;
+            }
+            try {
+                if (!pending.remove(key, this)) {
+                    // cancelled
+                    return;
+                }
+                lastLag = Math.max(0, System.currentTimeMillis() - due);
+                poll.run();
+            } catch (Throwable e) {
+                LOGGER.log(Level.WARNING, "Poll " + key + " fail", e);
+            } finally {
+                running.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Item;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Load all triggers' saved state in parallel after startup, off the startup critical path,
+ * so the first polls don't each read their state file.
+ *
+ * @author HW
+ */
+public class RemotePollWarmUp {
+    private static final Logger LOGGER = Logger.getLogger(RemotePollWarmUp.class.getName());
+    private static final int THREADS = SystemProperties.getInteger(RemotePollWarmUp.class.getName() + ".threads", 4);
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void warmUp() {
+        new DaemonThreadFactory(runnable -> new Thread(runnable, "RemotePollWarmUp"))
+                .newThread(RemotePollWarmUp::loadStates)
+                .start();
+    }
+
+    static void loadStates() {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            long start = System.currentTimeMillis();
+            List<Item> items = new ArrayList<>();
+            for (Item item : Jenkins.get().allItems(Item.class)) {
+                RemoteBuildResultTrigger trigger = RemoteBuildResultTrigger.getTrigger(item);
+                if (trigger != null) {
+                    items.add(item);
+                    // 启动后即可在总览中看到所有远程任务
+                    for (RemoteJobInfo jobInfo : trigger.getRemoteJobInfos()) {
+                        RemoteJobStatusIndex.register(item.getFullName(), jobInfo);
+                    }
+                }
+            }
+            long scanned = System.currentTimeMillis();
+            LOGGER.info("Remote poll warm-up: found " + items.size() + " triggered jobs in " + (scanned - start) + "ms");
+
+            AtomicInteger loaded = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, THREADS),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "RemotePollWarmUp"));
+            try {
+                for (Item item : items) {
+                    executor.execute(() -> {
+                        try {
+                            if (!RemoteJobResultUtils.loadSavedJobInfos(item).isEmpty()) {
+                                loaded.incrementAndGet();
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            failed.incrementAndGet();
+                            LOGGER.log(Level.FINE, "Can't load remote result state of " + item.getFullName(), e);
+                        }
+                    });
+                }
+            } finally {
+                executor.shutdown();
+            }
+            if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+                LOGGER.warning("Remote poll warm-up: state loading didn't finish in time");
+            }
+            LOGGER.info("Remote poll warm-up: loaded " + loaded.get() + " states (" + failed.get() + " failed) in "
+                    + (System.currentTimeMillis() - scanned) + "ms, total " + (System.currentTimeMillis() - start) + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Remote poll warm-up fail", e);
+        }
+    }
+}
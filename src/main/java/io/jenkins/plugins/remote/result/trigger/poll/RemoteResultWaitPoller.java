@@ -0,0 +1,233 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Item;
+import hudson.model.PeriodicWork;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+import jenkins.util.SystemProperties;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared poller of {@link RemoteResultWaiter}s.
+ * <p>
+ * Waiters of the same remote job are grouped, each group is polled once per period on the
+ * {@link RemotePollScheduler} whatever how many waiters it has, and no thread is held between two polls.
+ *
+ * @author HW
+ */
+@Extension
+public class RemoteResultWaitPoller extends PeriodicWork {
+    private static final Logger LOGGER = Logger.getLogger(RemoteResultWaitPoller.class.getName());
+    /**
+     * poll period
+     */
+    private static final long RECURRENCE_PERIOD = SystemProperties.getLong(
+            RemoteResultWaitPoller.class.getName() + ".recurrencePeriod", TimeUnit.SECONDS.toMillis(30));
+    /**
+     * max remote builds checked in one poll of a group
+     */
+    private static final int MAX_BUILDS_PER_POLL = 50;
+
+    private final Map<String, WaitGroup> groups = new ConcurrentHashMap<>();
+
+    public static RemoteResultWaitPoller get() {
+        return ExtensionList.lookupSingleton(RemoteResultWaitPoller.class);
+    }
+
+    /**
+     * start waiting
+     *
+     * @param waiter waiter
+     */
+    public void register(RemoteResultWaiter waiter) {
+        groups.compute(groupKey(waiter), (key, group) -> {
+            WaitGroup waitGroup = group == null ? new WaitGroup(key) : group;
+            waitGroup.waiters.add(waiter);
+            return waitGroup;
+        });
+    }
+
+    /**
+     * stop waiting
+     *
+     * @param waiter waiter
+     */
+    public void unregister(RemoteResultWaiter waiter) {
+        groups.computeIfPresent(groupKey(waiter), (key, group) -> {
+            group.waiters.remove(waiter);
+            return group.waiters.isEmpty() ? null : group;
+        });
+    }
+
+    /**
+     * @return remote jobs being polled
+     */
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return RECURRENCE_PERIOD;
+    }
+
+    @Override
+    protected void doRun() {
+        // 超时每个周期都检查，不依赖轮询是否执行
+        long now = System.currentTimeMillis();
+        for (WaitGroup group : groups.values()) {
+            expire(group, now);
+        }
+        // 在统一调度器上轮询，上一次还没有完成的跳过
+        RemotePollScheduler scheduler = RemotePollScheduler.get();
+        for (WaitGroup group : groups.values()) {
+            scheduler.schedule("waitForRemoteResult#" + group.key, RECURRENCE_PERIOD, () -> poll(group));
+        }
+    }
+
+    /**
+     * fail waiters timed out or whose job is gone
+     *
+     * @param group waiters of a remote job
+     * @param now   current time (ms)
+     */
+    private void expire(WaitGroup group, long now) {
+        for (RemoteResultWaiter waiter : group.waiters) {
+            if (now > waiter.getDeadline()) {
+                unregister(waiter);
+                waiter.onFailed(new AbortException("Timed out waiting for a remote build of " + waiter.getRemoteJobUrl()));
+            } else if (waiter.getItem() == null) {
+                // 任务被删除或移动
+                unregister(waiter);
+                waiter.onFailed(new AbortException("Job waiting for a remote build of " + waiter.getRemoteJobUrl() + " is gone"));
+            }
+        }
+    }
+
+    private void poll(WaitGroup group) {
+        expire(group, System.currentTimeMillis());
+        RemoteResultWaiter first = group.waiters.stream().findFirst().orElse(null);
+        if (first == null) {
+            return;
+        }
+        Item item = first.getItem();
+        if (item == null) {
+            // 刚刚被删除，下个周期失败
+            return;
+        }
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer(first.getRemoteServer());
+        jobInfo.setRemoteJobUrl(first.getRemoteJobUrl());
+        try {
+            Integer lastCompletedNumber = RemoteJobResultUtils.requestLastCompletedBuildNumber(item, jobInfo);
+            if (lastCompletedNumber == null) {
+                failAll(group, new AbortException("Can't get remote build result, Server maybe deleted: " + first.getRemoteServer()));
+                return;
+            }
+            // 第一次轮询，只等待之后完成的构建
+            int minNumber = lastCompletedNumber;
+            for (RemoteResultWaiter waiter : group.waiters) {
+                if (waiter.getCheckedNumber() == null) {
+                    waiter.setCheckedNumber(lastCompletedNumber);
+                }
+                minNumber = Math.min(minNumber, waiter.getCheckedNumber());
+            }
+            minNumber = Math.max(minNumber, lastCompletedNumber - MAX_BUILDS_PER_POLL);
+
+            // 第一个还在构建中的构建，之后的构建可以命中，但已检查的位置不能越过它
+            int building = Integer.MAX_VALUE;
+            for (int number = minNumber + 1; number <= lastCompletedNumber && !group.waiters.isEmpty(); number++) {
+                SourceMap build;
+                try {
+                    build = RemoteJobResultUtils.requestBuildResult(item, jobInfo, number);
+                } catch (UnSuccessfulRequestStatusException e) {
+                    if (e.getStatus() == 404) {
+                        // build deleted
+                        if (number < building) {
+                            markChecked(group, number);
+                        }
+                        continue;
+                    }
+                    throw e;
+                }
+                if (build == null) {
+                    failAll(group, new AbortException("Can't get remote build result, Server maybe deleted: " + first.getRemoteServer()));
+                    return;
+                }
+                if (Boolean.TRUE.equals(build.booleanValue("building")) || Boolean.TRUE.equals(build.booleanValue("inProgress"))) {
+                    // 还在构建中，下次再检查，继续检查之后已完成的构建
+                    building = Math.min(building, number);
+                    continue;
+                }
+                SourceMap resultJson = RemoteJobResultUtils.cleanAndFixResultJson(build);
+                for (RemoteResultWaiter waiter : group.waiters) {
+                    if (waiter.getCheckedNumber() < number) {
+                        if (waiter.isMatched(build, resultJson)) {
+                            unregister(waiter);
+                            waiter.onMatched(build, resultJson);
+                        } else if (number < building) {
+                            waiter.setCheckedNumber(number);
+                        }
+                    }
+                }
+            }
+        } catch (UnSuccessfulRequestStatusException e) {
+            // remote job may not exist yet, keep waiting until timeout
+            LOGGER.log(Level.FINE, "Poll " + first.getRemoteJobUrl() + " fail: " + e.getMessage());
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Poll " + first.getRemoteJobUrl() + " have a io exception", e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Poll " + first.getRemoteJobUrl() + " fail", e);
+        }
+    }
+
+    private void markChecked(WaitGroup group, int number) {
+        for (RemoteResultWaiter waiter : group.waiters) {
+            if (waiter.getCheckedNumber() == number - 1) {
+                waiter.setCheckedNumber(number);
+            }
+        }
+    }
+
+    private void failAll(WaitGroup group, Throwable cause) {
+        for (RemoteResultWaiter waiter : group.waiters) {
+            unregister(waiter);
+            waiter.onFailed(cause);
+        }
+    }
+
+    private static String groupKey(RemoteResultWaiter waiter) {
+        return waiter.getRemoteServer() + " " + StringUtils.removeEnd(waiter.getRemoteJobUrl(), "/");
+    }
+
+    /**
+     * waiters of one remote job
+     */
+    private static final class WaitGroup {
+        private final String key;
+        private final Set<RemoteResultWaiter> waiters = new CopyOnWriteArraySet<>();
+
+        private WaitGroup(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+
+/**
+ * Something waiting for a remote build, registered to {@link RemoteResultWaitPoller}
+ *
+ * @author HW
+ */
+public interface RemoteResultWaiter {
+
+    /**
+     * @return remote server id
+     */
+    String getRemoteServer();
+
+    /**
+     * @return remote job url
+     */
+    String getRemoteJobUrl();
+
+    /**
+     * @return item used to resolve credentials, null if it's gone
+     */
+    Item getItem();
+
+    /**
+     * @return builds up to this number are checked, null before the first poll
+     */
+    Integer getCheckedNumber();
+
+    void setCheckedNumber(int checkedNumber);
+
+    /**
+     * @return give up waiting after this time (ms)
+     */
+    long getDeadline();
+
+    /**
+     * Check if a completed remote build is the one waited for
+     *
+     * @param build      remote build api result
+     * @param resultJson remote result json, may be null
+     * @return matched
+     */
+    boolean isMatched(SourceMap build, SourceMap resultJson);
+
+    /**
+     * Waiting is over with a matched remote build
+     */
+    void onMatched(SourceMap build, SourceMap resultJson);
+
+    /**
+     * Waiting is over without a matched remote build
+     */
+    void onFailed(Throwable cause);
+}
@@ -0,0 +1,129 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import hudson.model.Item;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.utils.StateFormat;
+import jenkins.model.Jenkins;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State file in each job directory, encoded in the configured {@link StateFormat},
+ * a file of another format is converted when loaded. Files are replaced atomically.
+ *
+ * @author HW
+ */
+public class JobFileStateStore implements RemoteStateStore {
+
+    @Override
+    public List<JobResultInfo> load(Item job) throws IOException {
+        File file = getStateFile(job);
+        File source = file.exists() ? file : findStateFile(job);
+        if (source == null) {
+            return Collections.emptyList();
+        }
+        List<JobResultInfo> infos = StateFormat.read(source);
+        if (!source.equals(file)) {
+            // 其他格式保存的状态，转换为当前格式
+            save(job, infos);
+        }
+        return infos;
+    }
+
+    @Override
+    public void save(Item job, List<JobResultInfo> infos) throws IOException {
+        File file = getStateFile(job);
+        if (!file.getParentFile().exists()) {
+            FileUtils.forceMkdirParent(file);
+        }
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor descriptor = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get();
+        byte[] bytes = descriptor.getStateFormat().encode(infos, descriptor.isStateGzip());
+        // 先写临时文件再原子替换，读取时不会看到写了一半的文件
+        File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        try {
+            Files.write(tmp.toPath(), bytes);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        // 切换格式后删除其他格式的旧文件
+        for (File candidate : StateFormat.getCandidateFiles(file.getParentFile())) {
+            if (!candidate.equals(file) && candidate.exists()) {
+                FileUtils.delete(candidate);
+            }
+        }
+    }
+
+    @Override
+    public void delete(Item job) throws IOException {
+        for (File file : StateFormat.getCandidateFiles(job.getRootDir())) {
+            if (file.exists()) {
+                FileUtils.delete(file);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, List<JobResultInfo>> loadAll() throws IOException {
+        Map<String, List<JobResultInfo>> states = new LinkedHashMap<>();
+        for (Item item : getItems()) {
+            if (findStateFile(item) != null) {
+                states.put(item.getFullName(), load(item));
+            }
+        }
+        return states;
+    }
+
+    /**
+     * every file is replaced on its own, a failure leaves the jobs before it saved
+     */
+    @Override
+    public void saveAll(Map<String, List<JobResultInfo>> states) throws IOException {
+        for (Item item : getItems()) {
+            List<JobResultInfo> infos = states.get(item.getFullName());
+            if (infos != null) {
+                save(item, infos);
+            }
+        }
+    }
+
+    private static List<Item> getItems() {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            return new ArrayList<>(Jenkins.get().allItems(Item.class));
+        }
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return state file in the configured format
+     */
+    private static File getStateFile(Item job) {
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor descriptor = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get();
+        return new File(job.getRootDir(), descriptor.getStateFormat().getFileName(descriptor.isStateGzip()));
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return state file of any format, null if never saved
+     */
+    private static File findStateFile(Item job) {
+        for (File candidate : StateFormat.getCandidateFiles(job.getRootDir())) {
+            if (candidate.exists()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
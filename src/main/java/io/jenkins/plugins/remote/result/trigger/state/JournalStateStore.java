@@ -0,0 +1,258 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Single file store of every job, kept in memory and persisted as an append-only journal.
+ * <p>
+ * A record is {@code [length][crc32][cbor: job full name -> saved infos]}, an empty list deletes the job,
+ * so the jobs of one record are saved all or none. A torn record at the end of the journal
+ * (crash while appending) is dropped when it is replayed. Once the journal is much larger than the
+ * live state it is compacted into a single record and atomically replaces the old file.
+ *
+ * @author HW
+ */
+public class JournalStateStore implements RemoteStateStore, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(JournalStateStore.class.getName());
+    private static final TypeReference<Map<String, List<JobResultInfo>>> RECORD_TYPE = new TypeReference<>() {
+    };
+    private static final ObjectMapper MAPPER = new CBORMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final int HEADER_SIZE = 8;
+    /**
+     * compact once the journal is this many times larger than the last compacted size
+     */
+    private static final int COMPACT_RATIO = 4;
+    private static final long MIN_COMPACT_SIZE = 1024 * 1024;
+
+    private final File file;
+    /**
+     * job full name -> saved infos
+     */
+    private final Map<String, List<JobResultInfo>> states = new HashMap<>();
+    /**
+     * remote job id -> job full names
+     */
+    private final Map<String, Set<String>> jobsByRemoteJob = new HashMap<>();
+    private FileChannel channel;
+    private long compactedSize;
+
+    /**
+     * @param file journal file
+     */
+    public JournalStateStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized List<JobResultInfo> load(Item job) throws IOException {
+        open();
+        List<JobResultInfo> infos = states.get(job.getFullName());
+        return infos != null ? infos : Collections.emptyList();
+    }
+
+    @Override
+    public void save(Item job, List<JobResultInfo> infos) throws IOException {
+        saveAll(Map.of(job.getFullName(), infos));
+    }
+
+    @Override
+    public synchronized void delete(Item job) throws IOException {
+        open();
+        if (states.containsKey(job.getFullName())) {
+            saveAll(Map.of(job.getFullName(), Collections.emptyList()));
+        }
+    }
+
+    @Override
+    public synchronized Map<String, List<JobResultInfo>> loadAll() throws IOException {
+        open();
+        return new LinkedHashMap<>(states);
+    }
+
+    @Override
+    public synchronized void saveAll(Map<String, List<JobResultInfo>> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        open();
+        long position = channel.position();
+        try {
+            append(records);
+            channel.force(false);
+        } catch (IOException e) {
+            // 去掉写了一半的记录，否则之后追加的记录都无法回放
+            channel.truncate(position);
+            throw e;
+        }
+        records.forEach(this::apply);
+        if (channel.size() > Math.max(MIN_COMPACT_SIZE, compactedSize * COMPACT_RATIO)) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized Set<String> findJobs(String remoteJobId) throws IOException {
+        open();
+        return new TreeSet<>(jobsByRemoteJob.getOrDefault(remoteJobId, Collections.emptySet()));
+    }
+
+    @Override
+    public synchronized void rename(String oldFullName, String newFullName) throws IOException {
+        open();
+        List<JobResultInfo> infos = states.get(oldFullName);
+        if (infos != null) {
+            // 一条记录内完成，不会出现两个名字都有或都没有的情况
+            Map<String, List<JobResultInfo>> records = new LinkedHashMap<>();
+            records.put(oldFullName, Collections.emptyList());
+            records.put(newFullName, infos);
+            saveAll(records);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            states.clear();
+            jobsByRemoteJob.clear();
+        }
+    }
+
+    private void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        long validSize = 0;
+        if (file.exists()) {
+            validSize = replay();
+        } else if (file.getParentFile() != null) {
+            Files.createDirectories(file.getParentFile().toPath());
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > validSize) {
+            LOGGER.warning("Drop torn record at the end of " + file + ", " + (channel.size() - validSize) + " bytes");
+            channel.truncate(validSize);
+        }
+        channel.position(validSize);
+        compactedSize = validSize;
+    }
+
+    /**
+     * @return size of the complete records
+     */
+    private long replay() throws IOException {
+        long validSize = 0;
+        try (InputStream in = Files.newInputStream(file.toPath());
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            long size = file.length();
+            while (validSize + HEADER_SIZE <= size) {
+                int length = data.readInt();
+                int crc = data.readInt();
+                if (length < 0 || validSize + HEADER_SIZE + length > size) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                data.readFully(payload);
+                if (crc != checksum(payload)) {
+                    break;
+                }
+                Map<String, List<JobResultInfo>> records = MAPPER.readValue(payload, RECORD_TYPE);
+                records.forEach(this::apply);
+                validSize += HEADER_SIZE + length;
+            }
+        } catch (EOFException e) {
+            // torn record
+        }
+        return validSize;
+    }
+
+    private void append(Map<String, List<JobResultInfo>> records) throws IOException {
+        byte[] payload = MAPPER.writeValueAsBytes(records);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void apply(String job, List<JobResultInfo> infos) {
+        List<JobResultInfo> old = infos.isEmpty() ? states.remove(job) : states.put(job, List.copyOf(infos));
+        if (old != null) {
+            for (JobResultInfo info : old) {
+                Set<String> jobs = jobsByRemoteJob.get(info.getRemoteJob());
+                if (jobs != null) {
+                    jobs.remove(job);
+                    if (jobs.isEmpty()) {
+                        jobsByRemoteJob.remove(info.getRemoteJob());
+                    }
+                }
+            }
+        }
+        for (JobResultInfo info : infos) {
+            if (info.getRemoteJob() != null) {
+                jobsByRemoteJob.computeIfAbsent(info.getRemoteJob(), key -> new HashSet<>()).add(job);
+            }
+        }
+    }
+
+    /**
+     * rewrite the live state as one record and replace the journal
+     */
+    private void compact() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        FileChannel journal = channel;
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = out;
+            append(new HashMap<>(states));
+            out.force(false);
+        } finally {
+            channel = journal;
+        }
+        journal.close();
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // 替换失败时继续追加到原来的日志
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            compactedSize = channel.size();
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
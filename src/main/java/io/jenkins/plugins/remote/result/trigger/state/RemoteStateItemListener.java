@@ -0,0 +1,41 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * keep the saved state of deleted or renamed jobs in step with stores not kept in the job directory,
+ * and drop their cached state
+ *
+ * @author HW
+ */
+@Extension
+public class RemoteStateItemListener extends ItemListener {
+    private static final Logger LOGGER = Logger.getLogger(RemoteStateItemListener.class.getName());
+
+    @Override
+    public void onDeleted(Item item) {
+        RemoteJobResultUtils.evictCache(item.getFullName());
+        try {
+            RemoteStateStores.get().delete(item);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Can't delete remote result state of " + item.getFullName(), e);
+        }
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        RemoteJobResultUtils.evictCache(oldFullName);
+        try {
+            RemoteStateStores.get().rename(oldFullName, newFullName);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Can't move remote result state of " + oldFullName + " to " + newFullName, e);
+        }
+    }
+}
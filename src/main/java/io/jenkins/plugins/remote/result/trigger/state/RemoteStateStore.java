@@ -0,0 +1,87 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Persistence of the saved trigger state (checked, triggered and result infos) of jobs,
+ * jobs are identified by their full name in bulk operations
+ *
+ * @author HW
+ */
+public interface RemoteStateStore {
+
+    /**
+     * @param job Jenkins job
+     * @return saved infos of the job, empty if never saved
+     */
+    List<JobResultInfo> load(Item job) throws IOException;
+
+    /**
+     * replace the saved infos of a job
+     *
+     * @param job   Jenkins job
+     * @param infos saved infos
+     */
+    void save(Item job, List<JobResultInfo> infos) throws IOException;
+
+    /**
+     * @param job Jenkins job
+     */
+    void delete(Item job) throws IOException;
+
+    /**
+     * @return job full name -> saved infos of every job with a saved state
+     */
+    Map<String, List<JobResultInfo>> loadAll() throws IOException;
+
+    /**
+     * replace the saved infos of several jobs, stores supporting it apply them all or none
+     *
+     * @param states job full name -> saved infos
+     */
+    void saveAll(Map<String, List<JobResultInfo>> states) throws IOException;
+
+    /**
+     * @param remoteJobId remote job id
+     * @return full names of the jobs with a saved state of the remote job
+     */
+    default Set<String> findJobs(String remoteJobId) throws IOException {
+        Set<String> jobs = new TreeSet<>();
+        loadAll().forEach((job, infos) -> {
+            if (infos.stream().anyMatch(info -> remoteJobId.equals(info.getRemoteJob()))) {
+                jobs.add(job);
+            }
+        });
+        return jobs;
+    }
+
+    /**
+     * move the state of a renamed job, stores keyed by the job directory don't need it
+     *
+     * @param oldFullName old job full name
+     * @param newFullName new job full name
+     */
+    default void rename(String oldFullName, String newFullName) throws IOException {
+    }
+
+    /**
+     * store implementations
+     */
+    enum Type {
+        /**
+         * a state file in each job directory
+         */
+        JOB_FILE,
+        /**
+         * one append-only journal of every job in JENKINS_HOME
+         */
+        JOURNAL
+    }
+}
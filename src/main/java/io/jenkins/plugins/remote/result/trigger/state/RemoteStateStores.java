@@ -0,0 +1,100 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import hudson.init.Terminator;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * State store selected in the global configuration
+ *
+ * @author HW
+ */
+public final class RemoteStateStores {
+    private static final Logger LOGGER = Logger.getLogger(RemoteStateStores.class.getName());
+    private static final String JOURNAL_FILE = "remote-result-trigger-state.journal";
+    private static final JobFileStateStore JOB_FILE_STORE = new JobFileStateStore();
+    private static JournalStateStore journalStore;
+
+    private RemoteStateStores() {
+    }
+
+    /**
+     * @return configured state store
+     */
+    public static RemoteStateStore get() {
+        return get(RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getStateStore());
+    }
+
+    /**
+     * @param type store type
+     * @return state store of the type
+     */
+    public static RemoteStateStore get(RemoteStateStore.Type type) {
+        return type == RemoteStateStore.Type.JOURNAL ? getJournalStore() : JOB_FILE_STORE;
+    }
+
+    private static synchronized JournalStateStore getJournalStore() {
+        if (journalStore == null) {
+            journalStore = new JournalStateStore(new File(Jenkins.get().getRootDir(), JOURNAL_FILE));
+        }
+        return journalStore;
+    }
+
+    /**
+     * copy the state of every job from a store into another, jobs already saved in the target are kept
+     *
+     * @param from source store type
+     * @param to   target store type
+     * @return jobs copied
+     */
+    public static int migrate(RemoteStateStore.Type from, RemoteStateStore.Type to) throws IOException {
+        return migrate(from, to, false);
+    }
+
+    /**
+     * copy the state of every job from a store into another
+     *
+     * @param from      source store type
+     * @param to        target store type
+     * @param overwrite replace the state of jobs already saved in the target, e.g. when the source is the store in use
+     * @return jobs copied
+     */
+    public static int migrate(RemoteStateStore.Type from, RemoteStateStore.Type to, boolean overwrite) throws IOException {
+        if (from == to) {
+            return 0;
+        }
+        RemoteStateStore target = get(to);
+        Map<String, List<JobResultInfo>> existing = overwrite ? Map.of() : target.loadAll();
+        Map<String, List<JobResultInfo>> states = new LinkedHashMap<>();
+        get(from).loadAll().forEach((job, infos) -> {
+            // 目标中已有的状态更新，不覆盖
+            if (!existing.containsKey(job) && !infos.isEmpty()) {
+                states.put(job, infos);
+            }
+        });
+        target.saveAll(states);
+        LOGGER.info("Migrated remote result trigger state of " + states.size() + " jobs from " + from + " to " + to);
+        return states.size();
+    }
+
+    @Terminator
+    public static synchronized void close() {
+        if (journalStore != null) {
+            try {
+                journalStore.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Can't close remote result trigger state journal", e);
+            }
+            journalStore = null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes the stream when no bytes arrived for the idle timeout, so a stalled read fails
+ * while a slow but progressing download is never cut off
+ *
+ * @author HW
+ */
+class IdleTimeoutInputStream extends FilterInputStream {
+    private final long idleNanos;
+    private volatile long lastRead = System.nanoTime();
+    private volatile boolean closed;
+
+    IdleTimeoutInputStream(InputStream in, Duration idleTimeout) {
+        super(in);
+        this.idleNanos = idleTimeout.toNanos();
+        watch(idleNanos);
+    }
+
+    private void watch(long delay) {
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (closed) {
+                return;
+            }
+            long idle = System.nanoTime() - lastRead;
+            if (idle >= idleNanos) {
+                try {
+                    close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            } else {
+                // 期间有数据到达，从最后一次读取重新计时
+                watch(idleNanos - idle);
+            }
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        lastRead = System.nanoTime();
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        lastRead = System.nanoTime();
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        super.close();
+    }
+}
@@ -0,0 +1,190 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.utils.SessionCookieJar;
+import io.jenkins.plugins.remote.result.trigger.utils.ssl.SSLSocketManager;
+
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * java.net.http.HttpClient transport, requests to the same server are multiplexed over HTTP/2 when the server supports it
+ *
+ * @author HW
+ */
+public class JdkHttpTransport implements RemoteTransport {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    /**
+     * session key -> cookies of the session, null if session reuse disabled
+     */
+    private final Map<String, Session> sessions;
+    private final long sessionLifetime;
+
+    public JdkHttpTransport(RemoteJenkinsServer server) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(CONNECT_TIMEOUT);
+        // trustAllCertificates
+        if (server.isTrustAllCertificates()) {
+            SSLParameters parameters = new SSLParameters();
+            // 不校验主机名
+            parameters.setEndpointIdentificationAlgorithm(null);
+            builder.sslContext(SSLSocketManager.getSSLContext()).sslParameters(parameters);
+        }
+        // session reuse, cookies are sent and kept per session instead of by a client wide cookie handler
+        if (server.isReuseSession()) {
+            sessions = new ConcurrentHashMap<>();
+            sessionLifetime = TimeUnit.MINUTES.toMillis(server.getSessionLifetime());
+        } else {
+            sessions = null;
+            sessionLifetime = 0;
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public RemoteResponse get(RemoteRequest request) throws IOException {
+        try {
+            long start = System.nanoTime();
+            return toResponse(client.send(newRequest(request), HttpResponse.BodyHandlers.ofInputStream()), request, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted: " + request.getUrl(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+        long start = System.nanoTime();
+        return client.sendAsync(newRequest(request), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> toResponse(response, request, start));
+    }
+
+    @Override
+    public boolean hasSession(String url, String sessionKey) {
+        Session session = getSession(sessionKey, false);
+        if (session == null) {
+            return false;
+        }
+        return session.cookies.getCookieStore().get(URI.create(url)).stream()
+                .anyMatch(cookie -> !cookie.hasExpired() && SessionCookieJar.isSessionCookie(cookie.getName()));
+    }
+
+    @Override
+    public void clearSession(String sessionKey) {
+        if (sessions != null && sessionKey != null) {
+            sessions.remove(sessionKey);
+        }
+    }
+
+    /**
+     * @param sessionKey session key, null for none
+     * @param create     create a missing session
+     * @return live session, null if none
+     */
+    private Session getSession(String sessionKey, boolean create) {
+        if (sessions == null || sessionKey == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        // 超过会话时长的会话丢弃
+        Session session = sessions.computeIfPresent(sessionKey,
+                (key, existing) -> now - existing.start > sessionLifetime ? null : existing);
+        if (session == null && create) {
+            session = sessions.computeIfAbsent(sessionKey,
+                    key -> new Session(new CookieManager(null, CookiePolicy.ACCEPT_ORIGINAL_SERVER), now));
+        }
+        return session;
+    }
+
+    private HttpRequest newRequest(RemoteRequest request) {
+        URI uri = toUri(request.getUrl());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+        request.getHeaders().forEach(builder::header);
+        Session session = getSession(request.getSessionKey(), false);
+        if (session != null) {
+            List<HttpCookie> cookies = session.cookies.getCookieStore().get(uri);
+            if (!cookies.isEmpty()) {
+                builder.header("Cookie", cookies.stream().map(HttpCookie::toString).collect(Collectors.joining("; ")));
+            }
+        }
+        if (request.getTimeout() != null) {
+            builder.timeout(request.getTimeout());
+        } else if (request.getIdleTimeout() != null) {
+            // 等待响应头的时长
+            builder.timeout(request.getIdleTimeout());
+        }
+        return builder.build();
+    }
+
+    /**
+     * URI doesn't accept the brackets and range braces of tree= queries, OkHttp sends them as is
+     */
+    private static URI toUri(String url) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return URI.create(url);
+        }
+        return URI.create(url.substring(0, query) + url.substring(query).replace("[", "%5B").replace("]", "%5D")
+                .replace("{", "%7B").replace("}", "%7D"));
+    }
+
+    private RemoteResponse toResponse(HttpResponse<InputStream> response, RemoteRequest request, long start) {
+        if (response.headers().firstValue("Set-Cookie").isPresent()) {
+            Session session = getSession(request.getSessionKey(), true);
+            if (session != null) {
+                try {
+                    session.cookies.put(response.uri(), response.headers().map());
+                } catch (IOException e) {
+                    // 无法解析的cookie不保存
+                }
+            }
+        }
+        InputStream body = response.body();
+        if (request.getIdleTimeout() != null && body != null) {
+            // 响应体长时间没有数据时关闭，中断阻塞的读取
+            body = new IdleTimeoutInputStream(body, request.getIdleTimeout());
+        }
+        if (request.getTimeout() != null && body != null) {
+            // HttpRequest的超时只到响应头，到期关闭响应体中断阻塞的读取，限制整个请求的时长
+            long remaining = request.getTimeout().toNanos() - (System.nanoTime() - start);
+            InputStream closing = body;
+            CompletableFuture.delayedExecutor(Math.max(0, remaining), TimeUnit.NANOSECONDS).execute(() -> {
+                try {
+                    closing.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            });
+        }
+        return new RemoteResponse(response.statusCode(),
+                name -> response.headers().firstValue(name).orElse(null), body, null);
+    }
+
+    /**
+     * cookies of one remote session
+     *
+     * @param cookies cookie store of the session
+     * @param start   session start (ms)
+     */
+    private record Session(CookieManager cookies, long start) {
+    }
+}
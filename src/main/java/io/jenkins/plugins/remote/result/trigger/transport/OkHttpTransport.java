@@ -0,0 +1,151 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.utils.SessionCookieJar;
+import io.jenkins.plugins.remote.result.trigger.utils.ssl.SSLSocketManager;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Cookie;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * OkHttp transport, all servers share the same connection pool and dispatcher
+ *
+ * @author HW
+ */
+public class OkHttpTransport implements RemoteTransport {
+    private static final OkHttpClient BASE_CLIENT = new OkHttpClient();
+
+    private final OkHttpClient client;
+    /**
+     * session key -> cookies of the session, null if session reuse disabled
+     */
+    private final Map<String, SessionCookieJar> sessions;
+    private final long sessionLifetime;
+
+    public OkHttpTransport(RemoteJenkinsServer server) {
+        OkHttpClient.Builder clientBuilder = BASE_CLIENT.newBuilder();
+        // trustAllCertificates
+        if (server.isTrustAllCertificates()) {
+            clientBuilder
+                    .sslSocketFactory(SSLSocketManager.getSSLSocketFactory(),
+                            (X509TrustManager) SSLSocketManager.getTrustManager()[0])
+                    .hostnameVerifier(SSLSocketManager.getHostnameVerifier());
+        }
+        // session reuse
+        if (server.isReuseSession()) {
+            sessions = new ConcurrentHashMap<>();
+            sessionLifetime = TimeUnit.MINUTES.toMillis(server.getSessionLifetime());
+            // 网络拦截器，重定向的每一跳都带上并保存会话
+            clientBuilder.addNetworkInterceptor(this::withSession);
+        } else {
+            sessions = null;
+            sessionLifetime = 0;
+        }
+        this.client = clientBuilder.build();
+    }
+
+    @Override
+    public RemoteResponse get(RemoteRequest request) throws IOException {
+        return toResponse(newCall(request).execute());
+    }
+
+    @Override
+    public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+        CompletableFuture<RemoteResponse> future = new CompletableFuture<>();
+        Call call = newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                future.complete(toResponse(response));
+            }
+        });
+        // 取消future时取消请求
+        future.whenComplete((response, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public boolean hasSession(String url, String sessionKey) {
+        if (sessions == null || sessionKey == null) {
+            return false;
+        }
+        SessionCookieJar session = sessions.get(sessionKey);
+        return session != null && session.hasSession(HttpUrl.get(url));
+    }
+
+    @Override
+    public void clearSession(String sessionKey) {
+        if (sessions != null && sessionKey != null) {
+            sessions.remove(sessionKey);
+        }
+    }
+
+    /**
+     * send and keep the cookies of the request's session, requests of other credentials never share them
+     */
+    private Response withSession(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        String sessionKey = request.tag(String.class);
+        if (sessionKey == null) {
+            return chain.proceed(request);
+        }
+        SessionCookieJar session = sessions.computeIfAbsent(sessionKey, key -> new SessionCookieJar(sessionLifetime));
+        List<Cookie> cookies = session.loadForRequest(request.url());
+        if (!cookies.isEmpty()) {
+            request = request.newBuilder()
+                    .header("Cookie", cookies.stream().map(cookie -> cookie.name() + "=" + cookie.value())
+                            .collect(Collectors.joining("; ")))
+                    .build();
+        }
+        Response response = chain.proceed(request);
+        session.saveFromResponse(request.url(), Cookie.parseAll(request.url(), response.headers()));
+        return response;
+    }
+
+    private Call newCall(RemoteRequest request) {
+        Request.Builder requestBuilder = new Request.Builder().url(request.getUrl()).get();
+        request.getHeaders().forEach(requestBuilder::header);
+        if (request.getSessionKey() != null) {
+            requestBuilder.tag(String.class, request.getSessionKey());
+        }
+        // 下载只限制两次读取之间的等待，不限制整个请求的时长
+        OkHttpClient callClient = request.getIdleTimeout() != null
+                ? client.newBuilder().readTimeout(request.getIdleTimeout()).build() : client;
+        Call call = callClient.newCall(requestBuilder.build());
+        if (request.getTimeout() != null) {
+            call.timeout().timeout(request.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+
+    private static RemoteResponse toResponse(Response response) {
+        ResponseBody body = response.body();
+        return new RemoteResponse(response.code(), response::header,
+                body != null ? body.byteStream() : null, response);
+    }
+}
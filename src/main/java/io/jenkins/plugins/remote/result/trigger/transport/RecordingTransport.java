@@ -0,0 +1,149 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import hudson.init.Terminator;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transport decorator recording every exchange into a {@link RemoteFixtureArchive}.
+ * Request headers and cookies are never recorded, credentials don't end up in fixtures.
+ *
+ * @author HW
+ */
+public class RecordingTransport implements RemoteTransport {
+    private static final Logger LOGGER = Logger.getLogger(RecordingTransport.class.getName());
+    /**
+     * response headers kept in the archive
+     */
+    public static final List<String> RECORDED_HEADERS = List.of("Content-Type", "ETag", "Last-Modified", "Retry-After", "X-Jenkins");
+    /**
+     * archive written every N exchanges
+     */
+    private static final int FLUSH_EVERY = 100;
+    /**
+     * exchanges kept per archive, recording stops when reached
+     */
+    private static final int MAX_EXCHANGES = Integer.getInteger(RecordingTransport.class.getName() + ".maxExchanges", 10000);
+
+    /**
+     * archive file -> recording, shared by the transports of a server across reconfiguration
+     */
+    private static final Map<File, Recording> RECORDINGS = new ConcurrentHashMap<>();
+
+    private final RemoteTransport delegate;
+    private final Recording recording;
+
+    /**
+     * @param delegate transport doing the requests
+     * @param file     archive file
+     */
+    public RecordingTransport(RemoteTransport delegate, File file) {
+        this.delegate = delegate;
+        this.recording = RECORDINGS.computeIfAbsent(file, Recording::new);
+    }
+
+    @Override
+    public RemoteResponse get(RemoteRequest request) throws IOException {
+        long start = System.nanoTime();
+        return record(request, delegate.get(request), start);
+    }
+
+    @Override
+    public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+        long start = System.nanoTime();
+        return delegate.getAsync(request).thenApply(response -> {
+            try {
+                return record(request, response, start);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean hasSession(String url, String sessionKey) {
+        return delegate.hasSession(url, sessionKey);
+    }
+
+    @Override
+    public void clearSession(String sessionKey) {
+        delegate.clearSession(sessionKey);
+    }
+
+    /**
+     * read the whole body, record the exchange and serve the buffered body
+     */
+    private RemoteResponse record(RemoteRequest request, RemoteResponse response, long start) throws IOException {
+        byte[] body;
+        Map<String, String> headers = new LinkedHashMap<>();
+        int status;
+        try (response) {
+            status = response.getStatus();
+            body = response.getBody() != null ? IOUtils.toByteArray(response.getBody()) : null;
+            for (String name : RECORDED_HEADERS) {
+                String value = response.getHeader(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+        }
+        recording.add(request.getUrl(), status, headers, body, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new RemoteResponse(status, response::getHeader,
+                body != null ? new ByteArrayInputStream(body) : null, null);
+    }
+
+    /**
+     * write all recordings when Jenkins stops
+     */
+    @Terminator
+    public static void saveAll() {
+        RECORDINGS.values().forEach(Recording::save);
+    }
+
+    private static class Recording {
+        private final File file;
+        private final RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        private final long start = System.currentTimeMillis();
+
+        Recording(File file) {
+            this.file = file;
+        }
+
+        void add(String url, int status, Map<String, String> headers, byte[] body, long latency) {
+            int size;
+            synchronized (this) {
+                if (archive.size() >= MAX_EXCHANGES) {
+                    return;
+                }
+                archive.add(System.currentTimeMillis() - start, url, status, headers, body, latency);
+                size = archive.size();
+            }
+            if (size % FLUSH_EVERY == 0 || size == MAX_EXCHANGES) {
+                save();
+            }
+            if (size == MAX_EXCHANGES) {
+                LOGGER.info("Recording " + file + " reached " + MAX_EXCHANGES + " exchanges, stopped");
+            }
+        }
+
+        void save() {
+            try {
+                archive.save(file);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Can't write recording " + file, e);
+            }
+        }
+    }
+}
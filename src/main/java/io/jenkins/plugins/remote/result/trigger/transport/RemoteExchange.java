@@ -0,0 +1,38 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A recorded request/response exchange with a remote Jenkins
+ *
+ * @author HW
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class RemoteExchange {
+    /**
+     * time since the recording started (ms)
+     */
+    private long offset;
+    /**
+     * request path and query, without scheme and host, so a trace can be replayed against another server url
+     */
+    private String url;
+    private int status;
+    /**
+     * recorded response headers, see {@link RecordingTransport#RECORDED_HEADERS}
+     */
+    private Map<String, String> headers = new LinkedHashMap<>();
+    /**
+     * body entry of the archive, null if the response has no body
+     */
+    private String body;
+    /**
+     * time to response headers and the whole body (ms)
+     */
+    private long latency;
+}
@@ -0,0 +1,152 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Fixture archive of recorded exchanges, a zip of exchanges.json and the response bodies,
+ * identical bodies are stored once.
+ *
+ * @author HW
+ */
+public class RemoteFixtureArchive {
+    private static final String EXCHANGES_ENTRY = "exchanges.json";
+    private static final String BODY_ENTRY_PREFIX = "bodies/";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final List<RemoteExchange> exchanges = new ArrayList<>();
+    /**
+     * sha1 -> body
+     */
+    private final Map<String, byte[]> bodies = new HashMap<>();
+
+    /**
+     * add an exchange
+     *
+     * @param offset  time since the recording started (ms)
+     * @param url     request url
+     * @param status  response status
+     * @param headers recorded response headers
+     * @param body    response body, null if none
+     * @param latency response time (ms)
+     * @return the added exchange
+     */
+    public synchronized RemoteExchange add(long offset, String url, int status, Map<String, String> headers,
+                                           byte[] body, long latency) {
+        RemoteExchange exchange = new RemoteExchange();
+        exchange.setOffset(offset);
+        exchange.setUrl(toKey(url));
+        exchange.setStatus(status);
+        exchange.getHeaders().putAll(headers);
+        if (body != null) {
+            String sha1 = DigestUtils.sha1Hex(body);
+            bodies.putIfAbsent(sha1, body);
+            exchange.setBody(sha1);
+        }
+        exchange.setLatency(latency);
+        exchanges.add(exchange);
+        return exchange;
+    }
+
+    /**
+     * @return exchanges in recording order
+     */
+    public synchronized List<RemoteExchange> getExchanges() {
+        return Collections.unmodifiableList(new ArrayList<>(exchanges));
+    }
+
+    public synchronized int size() {
+        return exchanges.size();
+    }
+
+    /**
+     * @param exchange exchange of this archive
+     * @return response body, null if none
+     */
+    public synchronized byte[] getBody(RemoteExchange exchange) {
+        return exchange.getBody() != null ? bodies.get(exchange.getBody()) : null;
+    }
+
+    /**
+     * write the archive, the file is replaced only once it is completely written
+     *
+     * @param file archive file
+     */
+    public synchronized void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(tmp.toPath()))) {
+                zip.putNextEntry(new ZipEntry(EXCHANGES_ENTRY));
+                zip.write(MAPPER.writeValueAsBytes(exchanges));
+                zip.closeEntry();
+                for (Map.Entry<String, byte[]> body : bodies.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(BODY_ENTRY_PREFIX + body.getKey()));
+                    zip.write(body.getValue());
+                    zip.closeEntry();
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    /**
+     * @param file archive file
+     * @return archive
+     */
+    public static RemoteFixtureArchive load(File file) throws IOException {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                try (InputStream in = zip.getInputStream(entry)) {
+                    if (EXCHANGES_ENTRY.equals(entry.getName())) {
+                        archive.exchanges.addAll(MAPPER.readValue(in, new TypeReference<List<RemoteExchange>>() {
+                        }));
+                    } else if (entry.getName().startsWith(BODY_ENTRY_PREFIX)) {
+                        archive.bodies.put(entry.getName().substring(BODY_ENTRY_PREFIX.length()), IOUtils.toByteArray(in));
+                    }
+                }
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * replay key of an url: path and query, scheme and host removed
+     *
+     * @param url request url
+     * @return key
+     */
+    public static String toKey(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return url;
+        }
+        int path = url.indexOf('/', scheme + 3);
+        return path < 0 ? "/" : url.substring(path);
+    }
+}
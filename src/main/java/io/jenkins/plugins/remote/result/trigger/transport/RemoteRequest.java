@@ -0,0 +1,51 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Authenticated GET request to a remote Jenkins
+ *
+ * @author HW
+ */
+@Getter
+public class RemoteRequest {
+    private final String url;
+    /**
+     * request headers, e.g. Authorization, If-None-Match, If-Modified-Since
+     */
+    private final Map<String, String> headers;
+    /**
+     * whole call timeout, null for the transport default
+     */
+    private final Duration timeout;
+    /**
+     * remote session the response cookies are kept in and sent from, null to send no session
+     */
+    private final String sessionKey;
+    /**
+     * longest wait for the response or the next body bytes, for downloads whose whole duration can't be bounded,
+     * null for the transport default
+     */
+    private final Duration idleTimeout;
+
+    public RemoteRequest(String url, Map<String, String> headers, Duration timeout) {
+        this(url, headers, timeout, null);
+    }
+
+    public RemoteRequest(String url, Map<String, String> headers, Duration timeout, String sessionKey) {
+        this(url, headers, timeout, sessionKey, null);
+    }
+
+    public RemoteRequest(String url, Map<String, String> headers, Duration timeout, String sessionKey, Duration idleTimeout) {
+        this.url = url;
+        this.headers = headers != null ? Collections.unmodifiableMap(new LinkedHashMap<>(headers)) : Collections.emptyMap();
+        this.timeout = timeout;
+        this.sessionKey = sessionKey;
+        this.idleTimeout = idleTimeout;
+    }
+}
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.UnaryOperator;
+
+/**
+ * Response of a {@link RemoteTransport}, the body is streamed and must be closed
+ *
+ * @author HW
+ */
+public class RemoteResponse implements Closeable {
+    @Getter
+    private final int status;
+    private final UnaryOperator<String> headers;
+    /**
+     * body stream, null if none
+     */
+    @Getter
+    private final InputStream body;
+    private final Closeable resource;
+
+    /**
+     * @param status   status code
+     * @param headers  header name -> first value, null if absent
+     * @param body     body stream, null if none
+     * @param resource closed with the response, may be null
+     */
+    public RemoteResponse(int status, UnaryOperator<String> headers, InputStream body, Closeable resource) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.resource = resource;
+    }
+
+    /**
+     * @return 2xx
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * @param name header name, case insensitive
+     * @return first value, null if absent
+     */
+    public String getHeader(String name) {
+        return headers.apply(name);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (body != null) {
+                body.close();
+            }
+        } finally {
+            if (resource != null) {
+                resource.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP transport to a remote Jenkins server, one instance per server configuration
+ *
+ * @author HW
+ */
+public interface RemoteTransport {
+
+    /**
+     * blocking GET
+     *
+     * @param request request
+     * @return response, the caller closes it
+     */
+    RemoteResponse get(RemoteRequest request) throws IOException;
+
+    /**
+     * asynchronous GET
+     *
+     * @param request request
+     * @return future response, the caller closes it
+     */
+    CompletableFuture<RemoteResponse> getAsync(RemoteRequest request);
+
+    /**
+     * @param url        request url
+     * @param sessionKey remote session, one per resolved credentials
+     * @return a live remote session will be sent with requests of the session to the url, see session reuse of the server
+     */
+    default boolean hasSession(String url, String sessionKey) {
+        return false;
+    }
+
+    /**
+     * drop a remote session
+     *
+     * @param sessionKey remote session
+     */
+    default void clearSession(String sessionKey) {
+    }
+
+    /**
+     * transport implementations
+     */
+    enum Type {
+        /**
+         * OkHttp, HTTP/1.1 and HTTP/2 over TLS
+         */
+        OKHTTP,
+        /**
+         * java.net.http.HttpClient, HTTP/2 multiplexing
+         */
+        JDK
+    }
+}
@@ -0,0 +1,106 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transport of each remote server configuration.
+ * <p>
+ * Set the system property {@code io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports.record}
+ * to a directory to record the exchanges of each server into {@code <dir>/<server id>.zip}, or
+ * {@code ...RemoteTransports.replay} to serve them back from there without any network,
+ * {@code ...RemoteTransports.replaySpeed} sets the time compression (0 no delay, 1 the original latency).
+ *
+ * @author HW
+ */
+public final class RemoteTransports {
+    private static final Logger LOGGER = Logger.getLogger(RemoteTransports.class.getName());
+    private static final String RECORD_DIR = System.getProperty(RemoteTransports.class.getName() + ".record");
+    private static final String REPLAY_DIR = System.getProperty(RemoteTransports.class.getName() + ".replay");
+    private static final double REPLAY_SPEED = Double.parseDouble(
+            System.getProperty(RemoteTransports.class.getName() + ".replaySpeed", "0"));
+
+    /**
+     * server id -> transport of the current settings, replaced when settings change
+     */
+    private static final Map<String, Entry> TRANSPORTS = new ConcurrentHashMap<>();
+
+    /**
+     * replaces {@link #create(RemoteJenkinsServer)} when set
+     */
+    private static volatile Function<RemoteJenkinsServer, RemoteTransport> factory;
+
+    private RemoteTransports() {
+    }
+
+    /**
+     * @param server remote server
+     * @return transport of the server's current settings
+     */
+    public static RemoteTransport get(RemoteJenkinsServer server) {
+        String settings = server.getTransportType() + ":" + server.isTrustAllCertificates()
+                + ":" + (server.isReuseSession() ? server.getSessionLifetime() : 0);
+        return TRANSPORTS.compute(server.getId(), (id, entry) ->
+                entry != null && entry.settings.equals(settings) ? entry : new Entry(settings, newTransport(server))
+        ).transport;
+    }
+
+    private record Entry(String settings, RemoteTransport transport) {
+    }
+
+    private static RemoteTransport newTransport(RemoteJenkinsServer server) {
+        Function<RemoteJenkinsServer, RemoteTransport> override = factory;
+        if (override != null) {
+            return override.apply(server);
+        }
+        if (REPLAY_DIR != null) {
+            return new ReplayTransport(loadArchive(new File(REPLAY_DIR, server.getId() + ".zip")), REPLAY_SPEED);
+        }
+        RemoteTransport transport = create(server);
+        if (RECORD_DIR != null) {
+            return new RecordingTransport(transport, new File(RECORD_DIR, server.getId() + ".zip"));
+        }
+        return transport;
+    }
+
+    private static RemoteFixtureArchive loadArchive(File file) {
+        try {
+            return RemoteFixtureArchive.load(file);
+        } catch (IOException e) {
+            // 没有录制的服务器按空记录回放，所有请求都是404
+            LOGGER.log(Level.WARNING, "Can't load replay archive " + file, e);
+            return new RemoteFixtureArchive();
+        }
+    }
+
+    /**
+     * @param server remote server
+     * @return new transport of the server
+     */
+    public static RemoteTransport create(RemoteJenkinsServer server) {
+        if (server.getTransportType() == RemoteTransport.Type.JDK) {
+            return new JdkHttpTransport(server);
+        }
+        return new OkHttpTransport(server);
+    }
+
+    /**
+     * replace the transports of all servers, e.g. by a {@link ReplayTransport} in tests
+     *
+     * @param transportFactory transport factory, null to restore the default transports
+     */
+    @Restricted(NoExternalUse.class)
+    public static void setFactory(Function<RemoteJenkinsServer, RemoteTransport> transportFactory) {
+        factory = transportFactory;
+        TRANSPORTS.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Transport serving the exchanges of a {@link RemoteFixtureArchive}, no network involved.
+ * Exchanges of the same url are served in recording order, the last one is repeated once exhausted,
+ * unknown urls get a 404 like a remote Jenkins would answer.
+ *
+ * @author HW
+ */
+public class ReplayTransport implements RemoteTransport {
+    private final RemoteFixtureArchive archive;
+    /**
+     * time compression, 0 no delay, 1 the original latency, 10 ten times faster
+     */
+    private final double speed;
+    /**
+     * url key -> exchanges in recording order
+     */
+    private final Map<String, List<RemoteExchange>> exchanges = new HashMap<>();
+    /**
+     * url key -> next exchange index
+     */
+    private final Map<String, Integer> cursors = new HashMap<>();
+
+    /**
+     * @param archive recorded exchanges
+     * @param speed   time compression, 0 no delay, 1 the original latency
+     */
+    public ReplayTransport(RemoteFixtureArchive archive, double speed) {
+        this.archive = archive;
+        this.speed = speed;
+        for (RemoteExchange exchange : archive.getExchanges()) {
+            exchanges.computeIfAbsent(exchange.getUrl(), key -> new ArrayList<>()).add(exchange);
+        }
+    }
+
+    @Override
+    public RemoteResponse get(RemoteRequest request) throws IOException {
+        RemoteExchange exchange = next(RemoteFixtureArchive.toKey(request.getUrl()));
+        if (exchange == null) {
+            return new RemoteResponse(404, name -> null, null, null);
+        }
+        delay(exchange.getLatency());
+        // header名不区分大小写
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(exchange.getHeaders());
+        byte[] body = archive.getBody(exchange);
+        return new RemoteResponse(exchange.getStatus(), headers::get,
+                body != null ? new ByteArrayInputStream(body) : null, null);
+    }
+
+    @Override
+    public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(request);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * @param key url key
+     * @return next exchange of the url, null if never recorded
+     */
+    private synchronized RemoteExchange next(String key) {
+        List<RemoteExchange> list = exchanges.get(key);
+        if (list == null) {
+            return null;
+        }
+        int cursor = cursors.getOrDefault(key, 0);
+        cursors.put(key, Math.min(cursor + 1, list.size() - 1));
+        return list.get(cursor);
+    }
+
+    private void delay(long latency) throws IOException {
+        if (speed > 0 && latency > 0) {
+            try {
+                Thread.sleep((long) (latency / speed));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Replay interrupted");
+            }
+        }
+    }
+}
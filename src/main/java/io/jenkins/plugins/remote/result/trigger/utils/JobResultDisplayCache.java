@@ -0,0 +1,101 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultDisplayInfo;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered display infos of a version of saved job infos. Saved infos are replaced, never changed in place,
+ * so the list instance identifies the version.
+ *
+ * @author HW
+ */
+public class JobResultDisplayCache {
+    public static final String TYPE_RESULT = "result";
+    public static final String TYPE_RESULT_JSON = "resultJson";
+    private static final ObjectWriter JSON_PRETTY = new ObjectMapper().writerWithDefaultPrettyPrinter();
+
+    private final List<JobResultInfo> jobResultInfos;
+    private final List<JobResultDisplayInfo> displayInfos;
+    /**
+     * remote job id -> saved info
+     */
+    private final Map<String, JobResultInfo> byRemoteJob = new HashMap<>();
+    /**
+     * remoteJob:type -> pretty json, rendered when a panel is expanded
+     */
+    private final Map<String, String> jsons = new ConcurrentHashMap<>();
+
+    public JobResultDisplayCache(List<JobResultInfo> jobResultInfos) {
+        this.jobResultInfos = jobResultInfos;
+        List<JobResultDisplayInfo> infos = new ArrayList<>(jobResultInfos.size());
+        for (JobResultInfo jobResultInfo : jobResultInfos) {
+            byRemoteJob.put(jobResultInfo.getRemoteJob(), jobResultInfo);
+            JobResultDisplayInfo info = new JobResultDisplayInfo();
+            info.setRemoteJob(jobResultInfo.getRemoteJob());
+            info.setNumber(getNumber(jobResultInfo));
+            info.setRemoteJobUrl(jobResultInfo.getRemoteJobUrl());
+            info.setBuildUrl(jobResultInfo.getBuildUrl());
+            info.setHasResultJson(jobResultInfo.getRemoteResult() != null);
+            infos.add(info);
+        }
+        this.displayInfos = Collections.unmodifiableList(infos);
+    }
+
+    /**
+     * @param jobResultInfos saved infos
+     * @return this cache was rendered from these infos
+     */
+    public boolean isFor(List<JobResultInfo> jobResultInfos) {
+        return this.jobResultInfos == jobResultInfos;
+    }
+
+    public List<JobResultDisplayInfo> getDisplayInfos() {
+        return displayInfos;
+    }
+
+    /**
+     * pretty json of a panel
+     *
+     * @param remoteJob remote job id of the saved info
+     * @param number    triggered build number the page was rendered with
+     * @param type      {@link #TYPE_RESULT} or {@link #TYPE_RESULT_JSON}
+     * @return json, null if not found or the remote job triggered another build since
+     */
+    public String getJson(String remoteJob, int number, String type) throws JsonProcessingException {
+        JobResultInfo jobResultInfo = remoteJob != null ? byRemoteJob.get(remoteJob) : null;
+        if (jobResultInfo == null || getNumber(jobResultInfo) != number) {
+            return null;
+        }
+        Object value;
+        if (TYPE_RESULT_JSON.equals(type)) {
+            value = jobResultInfo.getRemoteResult();
+        } else {
+            // 未保留原始结果时展示摘要
+            value = jobResultInfo.getBuildResult() != null ? jobResultInfo.getBuildResult() : jobResultInfo.getBuild();
+        }
+        if (value == null) {
+            return null;
+        }
+        String key = remoteJob + ":" + type;
+        String json = jsons.get(key);
+        if (json == null) {
+            json = JSON_PRETTY.writeValueAsString(value);
+            jsons.put(key, json);
+        }
+        return json;
+    }
+
+    private static int getNumber(JobResultInfo jobResultInfo) {
+        return jobResultInfo.getTriggeredNumber() != null ? jobResultInfo.getTriggeredNumber() : 0;
+    }
+}
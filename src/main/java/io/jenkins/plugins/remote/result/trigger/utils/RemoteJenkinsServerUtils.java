@@ -32,16 +32,20 @@ public class RemoteJenkinsServerUtils {
      * @return remote server
      */
     public static RemoteJenkinsServer getRemoteJenkinsServer(String id) {
-        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor trigger =
-                (RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor) Jenkins.get()
-                        .getDescriptorOrDie(RemoteBuildResultTrigger.class);
+        return RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getRemoteJenkinsServer(id);
+    }
 
-        RemoteJenkinsServer[] remoteJenkinsServers = trigger.getRemoteJenkinsServers();
-        for (RemoteJenkinsServer server : remoteJenkinsServers) {
-            if (StringUtils.equals(server.getId(), id)) {
-                return server;
-            }
+    /**
+     * find RemoteJenkinsServer by id, display name or url
+     *
+     * @param idOrName remote server uid, display name or url
+     * @return remote server
+     */
+    public static RemoteJenkinsServer findRemoteJenkinsServer(String idOrName) {
+        RemoteJenkinsServer server = getRemoteJenkinsServer(idOrName);
+        if (server == null && StringUtils.isNotEmpty(idOrName)) {
+            return RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getRemoteJenkinsServerByName(idOrName);
         }
-        return null;
+        return server;
     }
 }
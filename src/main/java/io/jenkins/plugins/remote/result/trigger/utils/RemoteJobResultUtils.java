@@ -3,25 +3,40 @@ package io.jenkins.plugins.remote.result.trigger.utils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import hudson.model.BuildableItem;
 import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
 import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
 import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.RemoteResultAction;
+import io.jenkins.plugins.remote.result.trigger.auth2.AuthHeaderCache;
+import io.jenkins.plugins.remote.result.trigger.exceptions.ResponseTooLargeException;
 import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
+import io.jenkins.plugins.remote.result.trigger.model.BuildSummary;
 import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
-import io.jenkins.plugins.remote.result.trigger.utils.ssl.SSLSocketManager;
-import okhttp3.*;
-import org.apache.commons.io.FileUtils;
+import io.jenkins.plugins.remote.result.trigger.model.ResultCheck;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStore;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStores;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteRequest;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteResponse;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 
-import javax.net.ssl.X509TrustManager;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +45,39 @@ import java.util.stream.Collectors;
  * @author HW
  */
 public class RemoteJobResultUtils {
+    /**
+     * saved job infos by state store and job full name, loaded once and written through
+     */
+    private static final Map<String, SavedJobInfos> SAVED_JOB_INFOS = new ConcurrentHashMap<>();
+    /**
+     * striped locks of job states, held while a state is loaded or rewritten,
+     * readers of the cached snapshot don't take them
+     */
+    private static final Lock[] STATE_LOCKS = new Lock[64];
+
+    static {
+        for (int i = 0; i < STATE_LOCKS.length; i++) {
+            STATE_LOCKS[i] = new ReentrantLock();
+        }
+    }
+    /**
+     * fields of a remote build the trigger needs, requested when the full build json is too large
+     */
+    private static final String BUILD_RESULT_TREE = "number,url,result,building,inProgress,timestamp,duration,"
+            + "actions[_class,parameters[name,value],result]";
+    /**
+     * fields of the candidate builds the status pre-filter needs, builds is served from the build cache of the
+     * remote job while allBuilds loads every build record
+     */
+    private static final String BUILD_STATUS_TREE = "builds[number,result,building,inProgress]";
+    /**
+     * job level fields the trigger needs, the full job json lists every build and health report
+     */
+    private static final String JOB_INFO_TREE = "firstBuild[number]";
+    /**
+     * remote Jenkins lists at most 100 builds in builds
+     */
+    public static final int MAX_BUILD_STATUSES = 100;
 
     /**
      * get remote job last build number
@@ -48,6 +96,31 @@ public class RemoteJobResultUtils {
         return null;
     }
 
+    /**
+     * get remote job last completed build number
+     *
+     * @param job     Jenkins job
+     * @param jobInfo remote Job info
+     * @return 版本, 0 if remote job has no completed build
+     */
+    public static Integer requestLastCompletedBuildNumber(Item job, RemoteJobInfo jobInfo)
+            throws UnSuccessfulRequestStatusException, IOException {
+        String api = jobInfo.getRemoteJobUrl() + "/lastCompletedBuild/buildNumber";
+        try {
+            String result = requestRemoteApi(job, jobInfo, api);
+            if (result != null) {
+                return Integer.valueOf(result);
+            }
+        } catch (UnSuccessfulRequestStatusException e) {
+            // 404 means didn't have a completed build
+            if (e.getStatus() == 404) {
+                return 0;
+            }
+            throw e;
+        }
+        return null;
+    }
+
     /**
      * get remote job result
      *
@@ -59,7 +132,43 @@ public class RemoteJobResultUtils {
     public static SourceMap requestBuildResult(Item job, RemoteJobInfo jobInfo, int number)
             throws UnSuccessfulRequestStatusException, IOException {
         String api = jobInfo.getRemoteJobUrl() + "/" + number + "/api/json";
-        return requestRemoteJsonApi(job, jobInfo, api);
+        try {
+            return requestRemoteJsonApi(job, jobInfo, api);
+        } catch (ResponseTooLargeException e) {
+            // 完整结果超过限制（大量测试结果、参数等actions），只请求触发需要的字段重试
+            return requestRemoteJsonApi(job, jobInfo, api + "?tree=" + BUILD_RESULT_TREE);
+        }
+    }
+
+    /**
+     * get the status of the newest builds in one light query, without actions
+     *
+     * @param job     Jenkins job
+     * @param jobInfo remote Job info
+     * @param count   newest builds to request, at most {@link #MAX_BUILD_STATUSES} are returned
+     * @return build number -> status (number, result, building, inProgress), null if remote server configuration deleted
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Map<Integer, SourceMap> requestBuildStatuses(Item job, RemoteJobInfo jobInfo, int count)
+            throws UnSuccessfulRequestStatusException, IOException {
+        String api = jobInfo.getRemoteJobUrl() + "/api/json?tree=" + BUILD_STATUS_TREE
+                + "{0," + Math.min(count, MAX_BUILD_STATUSES) + "}";
+        SourceMap info = requestRemoteJsonApi(job, jobInfo, api);
+        if (info == null) {
+            return null;
+        }
+        Map<Integer, SourceMap> statuses = new HashMap<>();
+        List<Map> builds = info.listValue("builds", Map.class);
+        if (builds != null) {
+            for (Map build : builds) {
+                SourceMap status = SourceMap.of(build);
+                Integer number = status.integerValue("number");
+                if (number != null) {
+                    statuses.put(number, status);
+                }
+            }
+        }
+        return statuses;
     }
 
     /**
@@ -67,14 +176,87 @@ public class RemoteJobResultUtils {
      *
      * @param job     Jenkins job
      * @param jobInfo remote Job info
-     * @return job info
+     * @return job info with the first build only
      */
     public static SourceMap requestJobInfo(Item job, RemoteJobInfo jobInfo)
             throws UnSuccessfulRequestStatusException, IOException {
-        String api = jobInfo.getRemoteJobUrl() + "/api/json";
+        String api = jobInfo.getRemoteJobUrl() + "/api/json?tree=" + JOB_INFO_TREE;
+        return requestRemoteJsonApi(job, jobInfo, api);
+    }
+
+    /**
+     * 请求构建的制品及指纹信息
+     *
+     * @param job      Jenkins job
+     * @param jobInfo  remote Job info
+     * @param buildUrl remote build url
+     * @return artifacts and fingerprints of the build
+     */
+    public static SourceMap requestBuildArtifacts(Item job, RemoteJobInfo jobInfo, String buildUrl)
+            throws UnSuccessfulRequestStatusException, IOException {
+        String api = StringUtils.removeEnd(buildUrl, "/") + "/api/json?tree=artifacts[fileName,relativePath],fingerprint[fileName,hash]";
         return requestRemoteJsonApi(job, jobInfo, api);
     }
 
+    /**
+     * 清理并格式化返回, 提取pubResult发布的result json
+     *
+     * @param result remote build api result, changeSets、culprits、artifacts and actions are removed
+     * @return result json, null if remote build didn't publish result
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static SourceMap cleanAndFixResultJson(SourceMap result) {
+        Map<String, Object> source = result.getSource();
+        // 清理changeSets、culprits、artifacts等
+        source.remove("changeSets");
+        source.remove("culprits");
+        source.remove("artifacts");
+        source.remove("_class");
+        // 清理actions
+        List<Map> actions = result.listValue("actions", Map.class);
+        SourceMap resultJson = null;
+        if (actions != null) {
+            for (Map action : actions) {
+                SourceMap sourceMap = SourceMap.of(action);
+                if (RemoteResultAction.class.getName().equals(sourceMap.stringValue("_class"))) {
+                    Map resultJsonMap = sourceMap.sourceMap("result").getSource();
+                    resultJsonMap.remove("_class");
+                    resultJson = SourceMap.of(resultJsonMap);
+                    break;
+                }
+            }
+        }
+        source.remove("actions");
+        return resultJson;
+    }
+
+    /**
+     * check result json with result checks
+     *
+     * @param resultChecks result checks
+     * @param resultJson   remote result json, may be null
+     * @return true if no check configured or all checks passed
+     */
+    public static boolean isResultChecksPassed(List<ResultCheck> resultChecks, SourceMap resultJson) {
+        if (resultChecks == null || resultChecks.isEmpty()) {
+            return true;
+        }
+        if (resultJson == null) {
+            return false;
+        }
+        for (ResultCheck check : resultChecks) {
+            if (StringUtils.isNotEmpty(check.getKey())
+                    && StringUtils.isNotEmpty(check.getExpectedValue())) {
+                String value = resultJson.containsKey(check.getKey()) ? resultJson.stringValue(check.getKey()) : null;
+                if (value == null || !Pattern.compile(check.getExpectedValue()).matcher(value).matches()) {
+                    // 发现错误，跳出检查
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * last checked build number
      *
@@ -128,15 +310,110 @@ public class RemoteJobResultUtils {
     }
 
     /**
-     * save build info
+     * save a triggered build in one state update, so readers see all of it or none
+     *
+     * @param job          Jenkins job
+     * @param jobInfo      remote Job info
+     * @param summary      build summary
+     * @param buildResult  api result
+     * @param number       trigger number
+     * @param remoteResult result json, null keeps the saved one
+     */
+    public static void saveTriggeredBuild(BuildableItem job, RemoteJobInfo jobInfo, BuildSummary summary, SourceMap buildResult,
+                                          int number, SourceMap remoteResult) throws IOException {
+        boolean keepRaw = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().isKeepRawBuildResult();
+        safeSaveBuildResultInfo(job, jobInfo, (Consumer<JobResultInfo>) jobResultInfo -> {
+            jobResultInfo.setBuild(summary);
+            jobResultInfo.setBuildResult(keepRaw ? buildResult.getSource() : null);
+            jobResultInfo.setTriggeredNumber(number);
+            jobResultInfo.setPending(true);
+            if (remoteResult != null) {
+                jobResultInfo.setRemoteResult(remoteResult.getSource());
+            }
+        });
+    }
+
+    /**
+     * save build info, the raw api result only if enabled in the global configuration
      *
      * @param job         Jenkins job
      * @param jobInfo     remote Job info
+     * @param summary     build summary
      * @param buildResult api result
      */
-    public static void saveBuildResultInfo(BuildableItem job, RemoteJobInfo jobInfo, SourceMap buildResult) throws IOException {
-        safeSaveBuildResultInfo(job, jobInfo, (Consumer<JobResultInfo>)
-                jobResultInfo -> jobResultInfo.setBuildResult(buildResult.getSource()));
+    public static void saveBuildResultInfo(BuildableItem job, RemoteJobInfo jobInfo, BuildSummary summary, SourceMap buildResult)
+            throws IOException {
+        boolean keepRaw = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().isKeepRawBuildResult();
+        safeSaveBuildResultInfo(job, jobInfo, (Consumer<JobResultInfo>) jobResultInfo -> {
+            jobResultInfo.setBuild(summary);
+            jobResultInfo.setBuildResult(keepRaw ? buildResult.getSource() : null);
+        });
+    }
+
+    /**
+     * summarize a remote build, call before {@link #cleanAndFixResultJson(SourceMap)} removes the actions
+     *
+     * @param result remote build api result
+     * @return build summary
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static BuildSummary toBuildSummary(SourceMap result) {
+        BuildSummary summary = new BuildSummary();
+        summary.setNumber(result.integerValue("number"));
+        summary.setUrl(result.stringValue("url"));
+        summary.setResult(result.stringValue("result"));
+        summary.setTimestamp(result.longValue("timestamp"));
+        summary.setDuration(result.longValue("duration"));
+        // Parameters
+        List<Map> actions = result.listValue("actions", Map.class);
+        if (actions != null) {
+            for (Map action : actions) {
+                SourceMap actionMap = SourceMap.of(action);
+                if ("hudson.model.ParametersAction".equals(actionMap.stringValue("_class"))) {
+                    List<Map> parameters = actionMap.listValue("parameters", Map.class);
+                    if (parameters != null) {
+                        for (Map parameter : parameters) {
+                            SourceMap parameterMap = SourceMap.of(parameter);
+                            if (parameterMap.stringValue("name") != null) {
+                                summary.getParameters().put(parameterMap.stringValue("name"), parameterMap.stringValue("value"));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * take the matches saved by async polls, kept in the state so a replaced trigger or a restart doesn't lose them
+     *
+     * @param job Jenkins job
+     * @return any remote job matched since the last call
+     */
+    public static boolean drainPending(BuildableItem job) throws IOException {
+        Lock lock = getStateLock(job);
+        lock.lock();
+        try {
+            List<JobResultInfo> jobResultInfos = getSavedJobInfos(job);
+            boolean pending = false;
+            for (ListIterator<JobResultInfo> iterator = jobResultInfos.listIterator(); iterator.hasNext(); ) {
+                JobResultInfo jobResultInfo = iterator.next();
+                if (jobResultInfo.isPending()) {
+                    // copy on write
+                    JobResultInfo drained = jobResultInfo.copy();
+                    drained.setPending(false);
+                    iterator.set(drained);
+                    pending = true;
+                }
+            }
+            if (pending) {
+                writeSavedJobInfos(job, jobResultInfos);
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -146,22 +423,23 @@ public class RemoteJobResultUtils {
      * @param remoteJobInfos remote Job infos
      */
     public static void cleanUnusedBuildInfo(BuildableItem job, List<RemoteJobInfo> remoteJobInfos) {
+        Lock lock = getStateLock(job);
+        lock.lock();
         try {
             if (remoteJobInfos != null) {
                 List<JobResultInfo> jobResultInfos = getSavedJobInfos(job);
-                jobResultInfos.removeIf(savedJobInfo -> remoteJobInfos.stream().noneMatch(
+                boolean removed = jobResultInfos.removeIf(savedJobInfo -> remoteJobInfos.stream().noneMatch(
                         remoteJobInfo -> remoteJobInfo.getId().equals(savedJobInfo.getRemoteJob())
                 ));
                 // save to file
-                File file = getRemoteResultConfigFile(job);
-                if (!file.getParentFile().exists()) {
-                    FileUtils.forceMkdirParent(file);
+                if (removed) {
+                    writeSavedJobInfos(job, jobResultInfos);
                 }
-                String string = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(jobResultInfos);
-                FileUtils.writeStringToFile(file, string, StandardCharsets.UTF_8);
             }
         } catch (IOException e) {
             // do nothing
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -169,14 +447,20 @@ public class RemoteJobResultUtils {
      * 保存
      */
     private static void safeSaveBuildResultInfo(BuildableItem job, RemoteJobInfo jobInfo, Consumer<JobResultInfo> apply) throws IOException {
-        JobResultInfo jobResultInfo = getSavedJobInfo(job, jobInfo);
-        if (jobResultInfo == null) {
-            jobResultInfo = new JobResultInfo();
-        }
+        // 读取-修改-写入期间持有锁，并发的保存和清理不会丢失更新
+        Lock lock = getStateLock(job);
+        lock.lock();
+        try {
+            JobResultInfo jobResultInfo = getSavedJobInfo(job, jobInfo);
+            // copy on write
+            jobResultInfo = jobResultInfo == null ? new JobResultInfo() : jobResultInfo.copy();
 
-        apply.accept(jobResultInfo);
+            apply.accept(jobResultInfo);
 
-        saveBuildResultInfo(job, jobInfo, jobResultInfo);
+            saveBuildResultInfo(job, jobInfo, jobResultInfo);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -193,21 +477,24 @@ public class RemoteJobResultUtils {
         jobResultInfo.setRemoteJobUrl(jobInfo.getRemoteJobUrl());
         jobResultInfo.setUid(jobInfo.getUid());
 
-        // get saved list
-        List<JobResultInfo> jobResultInfos = getSavedJobInfos(job);
-        // remove old
-        jobResultInfos.removeIf(
-                info -> info.getRemoteServer().equals(jobResultInfo.getRemoteServer())
-                        && info.getRemoteJob().equals(jobResultInfo.getRemoteJob())
-        );
-        jobResultInfos.add(jobResultInfo);
+        // replace old by remote job id
+        Map<String, JobResultInfo> jobResultInfos = new LinkedHashMap<>(loadSavedState(job).byRemoteJob());
+        jobResultInfos.put(jobResultInfo.getRemoteJob(), jobResultInfo);
         // save to file
-        File file = getRemoteResultConfigFile(job);
-        if (!file.getParentFile().exists()) {
-            FileUtils.forceMkdirParent(file);
-        }
-        String string = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(jobResultInfos);
-        FileUtils.writeStringToFile(file, string, StandardCharsets.UTF_8);
+        writeSavedJobInfos(job, new ArrayList<>(jobResultInfos.values()));
+    }
+
+    /**
+     * write saved job infos to the state store and cache
+     *
+     * @param job            Jenkins job
+     * @param jobResultInfos save infos
+     */
+    private static void writeSavedJobInfos(Item job, List<JobResultInfo> jobResultInfos) throws IOException {
+        long start = System.nanoTime();
+        RemoteStateStores.get().save(job, jobResultInfos);
+        RemoteTriggerMetrics.updateStateWrite(System.nanoTime() - start);
+        SAVED_JOB_INFOS.put(getStateKey(job), SavedJobInfos.of(jobResultInfos));
     }
 
     /**
@@ -247,48 +534,127 @@ public class RemoteJobResultUtils {
      */
     private static String requestRemoteApi(Item job, RemoteJobInfo jobInfo, String apiUrl)
             throws IOException, UnSuccessfulRequestStatusException {
-        // OkHttp Client
-        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        return requestRemoteStream(job, jobInfo.getRemoteServer(), apiUrl,
+                in -> IOUtils.toString(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * do api request and stream the response body
+     *
+     * @param job          Jenkins job
+     * @param remoteServer remote server id
+     * @param apiUrl       api url
+     * @param consumer     response body consumer, the stream is closed after it returns
+     * @return consumer result, null if remote server configuration deleted or response has no body
+     */
+    public static <T> T requestRemoteStream(Item job, String remoteServer, String apiUrl, ResponseBodyConsumer<T> consumer)
+            throws IOException, UnSuccessfulRequestStatusException {
+        return requestRemoteStream(job, remoteServer, apiUrl, Collections.emptyMap(), consumer);
+    }
+
+    /**
+     * do api request with extra headers, e.g. conditional headers, and stream the response body
+     *
+     * @param job          Jenkins job
+     * @param remoteServer remote server id
+     * @param apiUrl       api url
+     * @param headers      extra request headers
+     * @param consumer     response body consumer, the stream is closed after it returns
+     * @return consumer result, null if remote server configuration deleted, response has no body or is 304
+     */
+    public static <T> T requestRemoteStream(Item job, String remoteServer, String apiUrl, Map<String, String> headers,
+                                            ResponseBodyConsumer<T> consumer)
+            throws IOException, UnSuccessfulRequestStatusException {
+        return request(job, remoteServer, apiUrl, headers, consumer, false);
+    }
+
+    /**
+     * download a file, e.g. an artifact, and stream it. Unlike api requests the size isn't capped and only the wait
+     * for the next bytes is bounded by the request timeout, so large or slow downloads complete
+     *
+     * @param job          Jenkins job
+     * @param remoteServer remote server id
+     * @param url          file url
+     * @param consumer     response body consumer, the stream is closed after it returns
+     * @return consumer result, null if remote server configuration deleted or response has no body
+     */
+    public static <T> T downloadRemoteStream(Item job, String remoteServer, String url, ResponseBodyConsumer<T> consumer)
+            throws IOException, UnSuccessfulRequestStatusException {
+        return request(job, remoteServer, url, Collections.emptyMap(), consumer, true);
+    }
 
-        RemoteJenkinsServer remoteServer = RemoteJenkinsServerUtils
-                .getRemoteJenkinsServer(jobInfo.getRemoteServer());
+    private static <T> T request(Item job, String remoteServer, String apiUrl, Map<String, String> headers,
+                                 ResponseBodyConsumer<T> consumer, boolean download)
+            throws IOException, UnSuccessfulRequestStatusException {
+        RemoteJenkinsServer server = RemoteJenkinsServerUtils.getRemoteJenkinsServer(remoteServer);
 
         // remote server configuration deleted
-        if (remoteServer == null) {
+        if (server == null) {
             return null;
         }
 
-        // trustAllCertificates
-        if (remoteServer.isTrustAllCertificates()) {
-            clientBuilder
-                    .sslSocketFactory(SSLSocketManager.getSSLSocketFactory(),
-                            (X509TrustManager) SSLSocketManager.getTrustManager()[0])
-                    .hostnameVerifier(SSLSocketManager.getHostnameVerifier());
-        }
-        OkHttpClient okHttpClient = clientBuilder.build();
-
-        // OkHttp Request
-        Request.Builder requestBuilder = new Request.Builder();
+        RemoteTransport transport = RemoteTransports.get(server);
+        Duration timeout = Duration.ofSeconds(server.getRequestTimeout());
+        // 下载不限制大小，超时只限制两次读取之间的等待
+        long maxResponseSize = download ? Long.MAX_VALUE : server.getMaxResponseSize() * 1024L;
         // auth
-        if (remoteServer.getAuth2() != null && remoteServer.getAuth2().getCredentials(job) != null) {
-            requestBuilder = requestBuilder.header("Authorization", remoteServer.getAuth2().getCredentials(job));
-        }
-
-        // api url
-        Request request = requestBuilder.url(apiUrl).get().build();
+        String credentials = AuthHeaderCache.getHeader(server, job);
+        // 会话按解析出的凭据区分，不同凭据的任务不共用会话
+        String sessionKey = server.isReuseSession() ? DigestUtils.sha256Hex(StringUtils.defaultString(credentials)) : null;
+        // 持有会话时不发送凭据，会话失效后带凭据重试一次
+        boolean useSession = transport.hasSession(apiUrl, sessionKey);
+        while (true) {
+            Map<String, String> requestHeaders = new LinkedHashMap<>(headers);
+            if (!useSession && credentials != null) {
+                requestHeaders.put("Authorization", credentials);
+            }
 
-        Call call = okHttpClient.newCall(request);
-        try (Response response = call.execute()) {
-            if (response.isSuccessful()) {
-                ResponseBody responseBody = response.body();
-                if (null != responseBody) {
-                    return responseBody.string();
+            long start = System.nanoTime();
+            int status = 0;
+            SizeLimitedInputStream counting = null;
+            try (RemoteResponse response = transport.get(download
+                    ? new RemoteRequest(apiUrl, requestHeaders, null, sessionKey, timeout)
+                    : new RemoteRequest(apiUrl, requestHeaders, timeout, sessionKey))) {
+                status = response.getStatus();
+                if (response.isSuccessful()) {
+                    if (response.getBody() != null) {
+                        // 声明的长度已超过限制时不读取
+                        String contentLength = response.getHeader("Content-Length");
+                        if (NumberUtils.toLong(contentLength, -1) > maxResponseSize) {
+                            throw new ResponseTooLargeException(maxResponseSize, apiUrl);
+                        }
+                        counting = new SizeLimitedInputStream(response.getBody(), maxResponseSize, apiUrl);
+                        return consumer.accept(counting);
+                    }
+                    return null;
+                } else if (status == 304) {
+                    return null;
+                } else if (useSession && (status == 401 || status == 403)) {
+                    transport.clearSession(sessionKey);
+                    useSession = false;
+                } else {
+                    if (status == 401) {
+                        // 凭据可能已变更，下次重新解析
+                        AuthHeaderCache.invalidate(server.getId());
+                    }
+                    throw new UnSuccessfulRequestStatusException("Response UnSuccess Code:" + status + ",Url:" + apiUrl, status, apiUrl);
                 }
-            } else {
-                throw new UnSuccessfulRequestStatusException("Response UnSuccess Code:" + response.code() + ",Url:" + apiUrl, response.code(), apiUrl);
+            } catch (ResponseTooLargeException e) {
+                RemoteTriggerMetrics.markOversized(server.getId());
+                throw e;
+            } finally {
+                RemoteTriggerMetrics.updateHttp(server.getId(), status, System.nanoTime() - start,
+                        counting != null ? counting.getByteCount() : 0);
             }
         }
-        return null;
+    }
+
+    /**
+     * response body stream consumer
+     */
+    @FunctionalInterface
+    public interface ResponseBodyConsumer<T> {
+        T accept(InputStream in) throws IOException;
     }
 
     /**
@@ -320,11 +686,7 @@ public class RemoteJobResultUtils {
      * @return saved job info
      */
     private static JobResultInfo getSavedJobInfo(Item job, RemoteJobInfo jobInfo) throws IOException {
-        List<JobResultInfo> jobResultInfos = getSavedJobInfos(job);
-        return jobResultInfos.stream().filter(
-                savedJobInfo -> savedJobInfo.getRemoteServer().equals(jobInfo.getRemoteServer())
-                        && savedJobInfo.getRemoteJob().equals(jobInfo.getId())
-        ).findAny().orElse(null);
+        return loadSavedState(job).byRemoteJob().get(jobInfo.getId());
     }
 
     /**
@@ -334,34 +696,146 @@ public class RemoteJobResultUtils {
      * @return saved job infos
      */
     public static List<JobResultInfo> getSavedJobInfos(Item job) throws IOException {
-        File file = getRemoteResultConfigFile(job);
-        if (file.exists()) {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            CollectionType collectionType = TypeFactory.defaultInstance().constructCollectionType(List.class, JobResultInfo.class);
-            return mapper.readValue(file, collectionType);
+        return new ArrayList<>(loadSavedJobInfos(job));
+    }
+
+    /**
+     * load saved job infos into cache
+     *
+     * @param job Jenkins job
+     * @return saved job infos, unmodifiable
+     */
+    public static List<JobResultInfo> loadSavedJobInfos(Item job) throws IOException {
+        return loadSavedState(job).infos();
+    }
+
+    private static SavedJobInfos loadSavedState(Item job) throws IOException {
+        String key = getStateKey(job);
+        SavedJobInfos cached = SAVED_JOB_INFOS.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // 只有未缓存时才加锁加载，不会和写入交错
+        Lock lock = getStateLock(job);
+        lock.lock();
+        try {
+            cached = SAVED_JOB_INFOS.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            long start = System.nanoTime();
+            List<JobResultInfo> infos = new ArrayList<>(RemoteStateStores.get().load(job));
+            if (infos.isEmpty()) {
+                return SavedJobInfos.EMPTY;
+            }
+            migrateBuildResults(infos);
+            SavedJobInfos loaded = SavedJobInfos.of(infos);
+            RemoteTriggerMetrics.updateStateRead(System.nanoTime() - start);
+            SAVED_JOB_INFOS.put(key, loaded);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * state saved by older versions only has the raw build json, summarize it
+     * and drop the raw json unless it is kept, it is written in the new form with the next change
+     *
+     * @param infos loaded infos
+     */
+    private static void migrateBuildResults(List<JobResultInfo> infos) {
+        boolean keepRaw = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().isKeepRawBuildResult();
+        for (JobResultInfo info : infos) {
+            if (info != null && info.getBuildResult() != null) {
+                if (info.getBuild() == null) {
+                    info.setBuild(toBuildSummary(SourceMap.of(info.getBuildResult())));
+                }
+                if (!keepRaw) {
+                    info.setBuildResult(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * immutable saved job infos of a state file indexed by remote job id,
+     * replaced as a whole on every write so the list instance identifies the version
+     */
+    private record SavedJobInfos(List<JobResultInfo> infos, Map<String, JobResultInfo> byRemoteJob) {
+        static final SavedJobInfos EMPTY = new SavedJobInfos(Collections.emptyList(), Collections.emptyMap());
+
+        static SavedJobInfos of(List<JobResultInfo> infos) {
+            Map<String, JobResultInfo> byRemoteJob = new LinkedHashMap<>();
+            for (JobResultInfo info : infos) {
+                if (info != null && info.getRemoteJob() != null) {
+                    byRemoteJob.put(info.getRemoteJob(), info);
+                }
+            }
+            return new SavedJobInfos(List.copyOf(byRemoteJob.values()), Collections.unmodifiableMap(byRemoteJob));
         }
-        return new ArrayList<>();
     }
 
     /**
      * 清理缓存
      */
     public static void cleanCache(BuildableItem job) throws IOException {
-        File file = getRemoteResultConfigFile(job);
-        if (file.exists()) {
-            FileUtils.delete(file);
+        Lock lock = getStateLock(job);
+        lock.lock();
+        try {
+            SAVED_JOB_INFOS.remove(getStateKey(job));
+            RemoteStateStores.get().delete(job);
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * get remote result config file
+     * drop the cached state of every job in a store, e.g. before switching to it, so no state cached while
+     * it was used before is served
      *
+     * @param type state store type
+     */
+    public static void evictCache(RemoteStateStore.Type type) {
+        SAVED_JOB_INFOS.keySet().removeIf(key -> key.startsWith(type + ":"));
+    }
+
+    /**
+     * drop the cached state of a job, e.g. after it was deleted or moved,
+     * a job created later with the same name loads its own state
+     *
+     * @param fullName full name of the job
+     */
+    public static void evictCache(String fullName) {
+        Lock lock = getStateLock(fullName);
+        lock.lock();
+        try {
+            for (RemoteStateStore.Type type : RemoteStateStore.Type.values()) {
+                SAVED_JOB_INFOS.remove(type + ":" + fullName);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
      * @param job Jenkins job
-     * @return config file
+     * @return lock of the job state, the same for every state store
      */
-    private static File getRemoteResultConfigFile(Item job) {
-        return new File(job.getRootDir().getAbsolutePath() + "/remote-build-result.json");
+    private static Lock getStateLock(Item job) {
+        return getStateLock(job.getFullName());
+    }
+
+    private static Lock getStateLock(String fullName) {
+        return STATE_LOCKS[Math.floorMod(fullName.hashCode(), STATE_LOCKS.length)];
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return cache key of the saved state in the configured store
+     */
+    private static String getStateKey(Item job) {
+        return RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().getStateStore() + ":" + job.getFullName();
     }
 
     /**
@@ -374,37 +848,19 @@ public class RemoteJobResultUtils {
     @SuppressWarnings({"rawtypes", "unchecked"})
     private static Map<String, String> generateEnvs(String prefix, JobResultInfo jobResultInfo) throws JsonProcessingException {
         Map<String, String> envs = new HashMap<>();
-        if (jobResultInfo.getBuildResult() != null) {
-            SourceMap sourceMap = SourceMap.of(jobResultInfo.getBuildResult());
+        BuildSummary build = jobResultInfo.getBuild();
+        if (build != null) {
             // BUILD_NUMBER
-            envs.put(prefix + "BUILD_NUMBER", sourceMap.stringValue("number"));
+            envs.put(prefix + "BUILD_NUMBER", build.getNumber() != null ? build.getNumber().toString() : null);
             // TIMESTAMP
-            envs.put(prefix + "BUILD_TIMESTAMP", sourceMap.stringValue("timestamp"));
+            envs.put(prefix + "BUILD_TIMESTAMP", build.getTimestamp() != null ? build.getTimestamp().toString() : null);
             // BUILD_URL
-            envs.put(prefix + "BUILD_URL", sourceMap.stringValue("url"));
+            envs.put(prefix + "BUILD_URL", build.getUrl());
             // BUILD_RESULT
-            envs.put(prefix + "BUILD_RESULT", sourceMap.stringValue("result"));
+            envs.put(prefix + "BUILD_RESULT", build.getResult());
 
             // Parameters
-            List<Map> actions = sourceMap.listValue("actions", Map.class);
-            if (actions != null) {
-                for (Map action : actions) {
-                    SourceMap actionMap = SourceMap.of(action);
-                    if (actionMap.stringValue("_class") != null
-                            && "hudson.model.ParametersAction".equals(actionMap.stringValue("_class"))) {
-                        List<Map> parameters = actionMap.listValue("parameters", Map.class);
-                        if (parameters != null) {
-                            for (Map parameter : parameters) {
-                                SourceMap parameterMap = SourceMap.of(parameter);
-                                if (parameterMap.stringValue("name") != null) {
-                                    String key = prefix + "PARAMETER_" + parameterMap.stringValue("name");
-                                    envs.put(key, parameterMap.stringValue("value"));
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            build.getParameters().forEach((name, value) -> envs.put(prefix + "PARAMETER_" + name, value));
 
             // result json
             Map<String, Object> resultJson = jobResultInfo.getRemoteResult();
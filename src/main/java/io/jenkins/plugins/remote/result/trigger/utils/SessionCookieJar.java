@@ -0,0 +1,97 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cookie jar of one remote session (JSESSIONID etc.) kept for at most the session lifetime.
+ * While a session is held requests are sent without the Authorization header,
+ * so the remote Jenkins doesn't verify the api token on every request.
+ *
+ * @author HW
+ */
+public class SessionCookieJar implements CookieJar {
+    /**
+     * Jenkins (Jetty) session cookies are named JSESSIONID.&lt;hash&gt;
+     */
+    private static final String SESSION_COOKIE = "JSESSIONID";
+
+    private final long lifetime;
+    private List<Cookie> cookies = Collections.emptyList();
+    private long sessionStart;
+
+    /**
+     * @param lifetime session lifetime (ms)
+     */
+    public SessionCookieJar(long lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    @Override
+    public synchronized void saveFromResponse(@NonNull HttpUrl url, @NonNull List<Cookie> received) {
+        if (received.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Cookie> merged = new ArrayList<>(isExpired(now) ? Collections.emptyList() : cookies);
+        if (merged.isEmpty()) {
+            sessionStart = now;
+        }
+        for (Cookie cookie : received) {
+            merged.removeIf(saved -> saved.name().equals(cookie.name())
+                    && saved.domain().equals(cookie.domain()) && saved.path().equals(cookie.path()));
+            merged.add(cookie);
+        }
+        cookies = merged;
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<Cookie> loadForRequest(@NonNull HttpUrl url) {
+        long now = System.currentTimeMillis();
+        if (isExpired(now)) {
+            cookies = Collections.emptyList();
+            return Collections.emptyList();
+        }
+        List<Cookie> matched = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            if (cookie.expiresAt() > now && cookie.matches(url)) {
+                matched.add(cookie);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @param url request url
+     * @return a live session cookie will be sent to the url, other cookies (e.g. load balancer affinity) don't count
+     */
+    public synchronized boolean hasSession(HttpUrl url) {
+        return loadForRequest(url).stream().anyMatch(cookie -> isSessionCookie(cookie.name()));
+    }
+
+    /**
+     * @param name cookie name
+     * @return a remote Jenkins session cookie
+     */
+    public static boolean isSessionCookie(String name) {
+        return name.startsWith(SESSION_COOKIE);
+    }
+
+    /**
+     * drop the session, e.g. when the remote rejected it
+     */
+    public synchronized void clear() {
+        cookies = Collections.emptyList();
+    }
+
+    private boolean isExpired(long now) {
+        return !cookies.isEmpty() && now - sessionStart > lifetime;
+    }
+}
@@ -0,0 +1,74 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import io.jenkins.plugins.remote.result.trigger.exceptions.ResponseTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read and aborts the read once the limit is exceeded,
+ * an oversized response is never buffered completely.
+ *
+ * @author HW
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+    private final long limit;
+    private final String url;
+    private long count;
+
+    /**
+     * @param in    response body
+     * @param limit maximum bytes
+     * @param url   request url, for the error message
+     */
+    public SizeLimitedInputStream(InputStream in, long limit, String url) {
+        super(in);
+        this.limit = limit;
+        this.url = url;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            afterRead(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            afterRead(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        afterRead(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void afterRead(long n) throws ResponseTooLargeException {
+        count += n;
+        if (count > limit) {
+            throw new ResponseTooLargeException(limit, url);
+        }
+    }
+
+    /**
+     * @return bytes read
+     */
+    public long getByteCount() {
+        return count;
+    }
+}
@@ -106,6 +106,16 @@ public class SourceMap {
         return value(key, Integer.class);
     }
 
+    /**
+     * Long 值
+     *
+     * @param key 字段名
+     * @return 值
+     */
+    public Long longValue(String key) {
+        return value(key, Long.class);
+    }
+
     /**
      * Float 值
      *
@@ -0,0 +1,122 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of the saved trigger state of a job, the format of a file is told by its name,
+ * so a job can be switched to another format and its old file is still readable.
+ *
+ * @author HW
+ */
+public enum StateFormat {
+    /**
+     * indented json, the format of older versions
+     */
+    JSON_PRETTY(".json"),
+    /**
+     * json without indentation
+     */
+    JSON(".json"),
+    /**
+     * binary json
+     */
+    CBOR(".cbor");
+
+    private static final String BASE_NAME = "remote-build-result";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final CollectionType LIST_TYPE =
+            TypeFactory.defaultInstance().constructCollectionType(List.class, JobResultInfo.class);
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readerFor(LIST_TYPE);
+    private static final ObjectReader CBOR_READER = new CBORMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readerFor(LIST_TYPE);
+    private static final ObjectWriter JSON_PRETTY_WRITER = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+    private static final ObjectWriter CBOR_WRITER = new CBORMapper().writer();
+
+    private final String extension;
+
+    StateFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @param gzip gzip compressed
+     * @return state file name of this format
+     */
+    public String getFileName(boolean gzip) {
+        return BASE_NAME + extension + (gzip ? GZIP_SUFFIX : "");
+    }
+
+    /**
+     * @param infos saved infos
+     * @param gzip  gzip compressed
+     * @return encoded state
+     */
+    public byte[] encode(List<JobResultInfo> infos, boolean gzip) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer().writeValue(out, infos);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ObjectWriter writer() {
+        switch (this) {
+            case JSON_PRETTY:
+                return JSON_PRETTY_WRITER;
+            case CBOR:
+                return CBOR_WRITER;
+            default:
+                return JSON_WRITER;
+        }
+    }
+
+    /**
+     * @param dir state directory
+     * @return state files of every format and compression, the file of older versions first
+     */
+    public static List<File> getCandidateFiles(File dir) {
+        List<File> files = new ArrayList<>();
+        for (String extension : List.of(JSON.extension, CBOR.extension)) {
+            files.add(new File(dir, BASE_NAME + extension));
+            files.add(new File(dir, BASE_NAME + extension + GZIP_SUFFIX));
+        }
+        return files;
+    }
+
+    /**
+     * read a state file of any format
+     *
+     * @param file state file
+     * @return saved infos
+     */
+    public static List<JobResultInfo> read(File file) throws IOException {
+        String name = file.getName();
+        boolean gzip = name.endsWith(GZIP_SUFFIX);
+        ObjectReader reader = name.startsWith(BASE_NAME + CBOR.extension) ? CBOR_READER : JSON_READER;
+        try (InputStream in = gzip ? new GZIPInputStream(Files.newInputStream(file.toPath())) : Files.newInputStream(file.toPath())) {
+            return reader.readValue(in);
+        }
+    }
+}
@@ -16,12 +16,21 @@ public class SSLSocketManager {
      *
      * @return SSLSocketFactory
      */
-    @SuppressWarnings("lgtm[jenkins/unsafe-calls]")
     public static SSLSocketFactory getSSLSocketFactory() {
+        return getSSLContext().getSocketFactory();
+    }
+
+    /**
+     * 获取信任所有证书的SSLContext
+     *
+     * @return SSLContext
+     */
+    @SuppressWarnings("lgtm[jenkins/unsafe-calls]")
+    public static SSLContext getSSLContext() {
         try {
             SSLContext sslContext = SSLContext.getInstance("SSL");
             sslContext.init(null, getTrustManager(), new SecureRandom());
-            return sslContext.getSocketFactory();
+            return sslContext;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
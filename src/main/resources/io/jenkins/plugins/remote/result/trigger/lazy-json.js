@@ -0,0 +1,19 @@
+/* load json panels of remote results when they are expanded */
+Behaviour.specify("details.remote-result-lazy-json", "remote-result-lazy-json", 0, function (details) {
+    details.addEventListener("toggle", function () {
+        if (!details.open || details.dataset.loaded) {
+            return;
+        }
+        details.dataset.loaded = "true";
+        const pre = details.querySelector("pre");
+        pre.textContent = "Loading...";
+        fetch(details.dataset.url).then(function (rsp) {
+            return rsp.ok ? rsp.text() : Promise.reject(rsp.status);
+        }).then(function (text) {
+            pre.textContent = text;
+        }, function (status) {
+            pre.textContent = "Load failed: " + status;
+            delete details.dataset.loaded;
+        });
+    });
+});
@@ -0,0 +1,117 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import hudson.FilePath;
+import hudson.model.Result;
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.model.BuildSummary;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Artifact paths and fingerprints come from the remote server and must not leave the workspace or the cache
+ */
+@WithJenkins
+class DownloadRemoteArtifactsStepTest {
+    private static final String TREE = "/api/json?tree=artifacts[fileName,relativePath],fingerprint[fileName,hash]";
+    private static final String UTIL_MD5 = "05c7e24700502a079cdd88012b5a76d3";
+
+    private FaultyRemoteJenkins remote;
+
+    @BeforeEach
+    void startRemote() throws Exception {
+        remote = new FaultyRemoteJenkins(0);
+    }
+
+    @AfterEach
+    void stopRemote() throws Exception {
+        remote.close();
+    }
+
+    @Test
+    void testHostileFingerprintIsNotUsedAsCachePath(JenkinsRule j) throws Exception {
+        remote.respond("/job/upstream/1" + TREE, "{\"artifacts\":["
+                + "{\"fileName\":\"app.jar\",\"relativePath\":\"app.jar\"},"
+                + "{\"fileName\":\"util.jar\",\"relativePath\":\"lib/util.jar\"}],"
+                + "\"fingerprint\":[{\"fileName\":\"app.jar\",\"hash\":\"../escaped\"},"
+                + "{\"fileName\":\"util.jar\",\"hash\":\"" + UTIL_MD5 + "\"}]}");
+        remote.respond("/job/upstream/1/artifact/app.jar", "app");
+        remote.respond("/job/upstream/1/artifact/lib/util.jar", "util");
+        WorkflowJob project = newProject(j);
+
+        WorkflowRun run = j.assertBuildStatusSuccess(project.scheduleBuild2(0, newAction(project)));
+        j.assertLogContains("Remote fingerprint of app.jar is not a md5, not cached", run);
+        FilePath workspace = j.jenkins.getWorkspaceFor(project);
+        assertEquals("app", workspace.child("out/app.jar").readToString());
+        assertEquals("util", workspace.child("out/lib/util.jar").readToString());
+
+        FilePath cacheDir = j.jenkins.getRootPath().child("remote-result-trigger").child("artifacts-cache");
+        assertEquals(List.of(UTIL_MD5), cacheDir.list().stream().map(FilePath::getName).toList());
+        assertFalse(cacheDir.getParent().child("escaped").exists());
+    }
+
+    @Test
+    void testPathOutsideTargetIsRejected(JenkinsRule j) throws Exception {
+        remote.respond("/job/upstream/1" + TREE, "{\"artifacts\":["
+                + "{\"fileName\":\"evil.sh\",\"relativePath\":\"../evil.sh\"}],\"fingerprint\":[]}");
+        WorkflowJob project = newProject(j);
+
+        WorkflowRun run = j.assertBuildStatus(Result.FAILURE, project.scheduleBuild2(0, newAction(project)));
+        j.assertLogContains("Illegal remote artifact path: ../evil.sh", run);
+        assertFalse(j.jenkins.getWorkspaceFor(project).child("evil.sh").exists());
+    }
+
+    @Test
+    void testArtifactLargerThanApiResponsesIsDownloaded(JenkinsRule j) throws Exception {
+        remote.respond("/job/upstream/1" + TREE, "{\"artifacts\":["
+                + "{\"fileName\":\"big.bin\",\"relativePath\":\"big.bin\"}],\"fingerprint\":[]}");
+        // api响应限制为1KB，制品不受限制
+        String content = "x".repeat(64 * 1024);
+        remote.respond("/job/upstream/1/artifact/big.bin", content);
+        WorkflowJob project = newProject(j, 1);
+
+        j.assertBuildStatusSuccess(project.scheduleBuild2(0, newAction(project)));
+        assertEquals(content, j.jenkins.getWorkspaceFor(project).child("out/big.bin").readToString());
+    }
+
+    private WorkflowJob newProject(JenkinsRule j) throws Exception {
+        return newProject(j, 0);
+    }
+
+    /**
+     * @param maxResponseSize max api response size (KB), 0 for the default
+     */
+    private WorkflowJob newProject(JenkinsRule j, int maxResponseSize) throws Exception {
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("remote");
+        server.setUrl(remote.getUrl());
+        server.setAuth2(NoneAuth.INSTANCE);
+        server.setMaxResponseSize(maxResponseSize);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+
+        WorkflowJob project = j.createProject(WorkflowJob.class);
+        project.setDefinition(new CpsFlowDefinition("node { downloadRemoteArtifacts(target: 'out') }", true));
+        return project;
+    }
+
+    private RemoteBuildResultTriggerScheduledAction newAction(WorkflowJob project) {
+        BuildSummary build = new BuildSummary();
+        build.setNumber(1);
+        build.setUrl(remote.getUrl() + "job/upstream/1/");
+        JobResultInfo info = new JobResultInfo();
+        info.setRemoteServer("remote");
+        info.setRemoteJobUrl(remote.getUrl() + "job/upstream");
+        info.setBuild(build);
+        return new RemoteBuildResultTriggerScheduledAction(project, List.of(info));
+    }
+}
@@ -0,0 +1,277 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in of a remote Jenkins answering over plain sockets, so faults can be injected
+ * down to the connection level. A fault stays on a path until it is healed, client retries see it as well.
+ * Once credentials are required, requests need them or a live session, like a remote Jenkins issuing JSESSIONID.
+ */
+class FaultyRemoteJenkins implements Closeable {
+
+    enum Fault {
+        /**
+         * response headers delayed by the fault duration
+         */
+        LATENCY,
+        SERVER_ERROR,
+        TOO_MANY_REQUESTS,
+        /**
+         * connection reset (RST) instead of a response
+         */
+        RESET,
+        /**
+         * 200 with half of the json body
+         */
+        TRUNCATED_JSON,
+        /**
+         * body trickled one byte at a time over the fault duration
+         */
+        SLOWLORIS
+    }
+
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID\\.test=(\\w+)");
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+    private final long faultMillis;
+    private volatile boolean closed;
+    /**
+     * required Authorization header, null for anonymous access
+     */
+    private volatile String authorization;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    /**
+     * how each request authenticated: credentials, session or anonymous
+     */
+    private final List<String> logins = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param faultMillis duration of slow faults
+     */
+    FaultyRemoteJenkins(long faultMillis) throws IOException {
+        this.faultMillis = faultMillis;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/";
+    }
+
+    void respond(String path, String body) {
+        bodies.put(path, body);
+    }
+
+    void fail(String path, Fault fault) {
+        faults.put(path, fault);
+    }
+
+    void heal(String path) {
+        faults.remove(path);
+    }
+
+    /**
+     * @param authorization Authorization header required without a live session, it starts a session
+     */
+    void requireAuthorization(String authorization) {
+        this.authorization = authorization;
+    }
+
+    /**
+     * sessions issued so far are rejected with 401
+     */
+    void expireSessions() {
+        sessions.clear();
+    }
+
+    List<String> getLogins() {
+        return logins;
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = socket.getOutputStream();
+            // keep-alive, one request after another
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null && !requestLine.isEmpty()) {
+                Map<String, String> headers = new HashMap<>();
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                    }
+                }
+                String path = URLDecoder.decode(requestLine.split(" ")[1], StandardCharsets.UTF_8);
+                String cookies = login(headers);
+                if (cookies == null) {
+                    writeHead(out, 401, 0, "");
+                } else if (!serve(socket, out, bodies.get(path), faults.get(path), cookies)) {
+                    return;
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // client gone or server closed
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * @return Set-Cookie headers of the response, null if the request is rejected
+     */
+    private String login(Map<String, String> headers) {
+        if (authorization == null) {
+            return "";
+        }
+        // 负载均衡的亲和cookie不是会话
+        String affinity = "Set-Cookie: AWSALB=affinity; Path=/\r\n";
+        String credentials = headers.get("authorization");
+        if (credentials != null) {
+            logins.add("credentials");
+            if (!authorization.equals(credentials)) {
+                return null;
+            }
+            String session = String.valueOf(sessionIds.incrementAndGet());
+            sessions.add(session);
+            return affinity + "Set-Cookie: JSESSIONID.test=" + session + "; Path=/; HttpOnly\r\n";
+        }
+        Matcher matcher = SESSION_COOKIE.matcher(headers.getOrDefault("cookie", ""));
+        if (matcher.find()) {
+            logins.add("session");
+            return sessions.contains(matcher.group(1)) ? affinity : null;
+        }
+        logins.add("anonymous");
+        return null;
+    }
+
+    /**
+     * @return connection can be reused
+     */
+    private boolean serve(Socket socket, OutputStream out, String body, Fault fault, String cookies)
+            throws IOException, InterruptedException {
+        if (body == null) {
+            writeHead(out, 404, 0, "");
+            return true;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (fault == null) {
+            writeHead(out, 200, bytes.length, cookies);
+            out.write(bytes);
+            out.flush();
+            return true;
+        }
+        switch (fault) {
+            case LATENCY -> {
+                Thread.sleep(faultMillis);
+                writeHead(out, 200, bytes.length, "");
+                out.write(bytes);
+                out.flush();
+                return true;
+            }
+            case SERVER_ERROR -> {
+                writeHead(out, 500, 0, "");
+                return true;
+            }
+            case TOO_MANY_REQUESTS -> {
+                writeHead(out, 429, 0, "Retry-After: 1\r\n");
+                return true;
+            }
+            case RESET -> {
+                socket.setSoLinger(true, 0);
+                return false;
+            }
+            case TRUNCATED_JSON -> {
+                int length = Math.max(1, bytes.length / 2);
+                writeHead(out, 200, length, "");
+                out.write(bytes, 0, length);
+                out.flush();
+                return true;
+            }
+            case SLOWLORIS -> {
+                // json允许前导空白，先慢慢发送空白再发送body
+                int padding = (int) (faultMillis / 100);
+                writeHead(out, 200, padding + bytes.length, "");
+                for (int i = 0; i < padding; i++) {
+                    out.write(' ');
+                    out.flush();
+                    Thread.sleep(100);
+                }
+                out.write(bytes);
+                out.flush();
+                return true;
+            }
+            default -> throw new IllegalStateException("Unknown fault " + fault);
+        }
+    }
+
+    private static void writeHead(OutputStream out, int status, int length, String headers) throws IOException {
+        out.write(("HTTP/1.1 " + status + " X\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + length + "\r\n"
+                + headers + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (SocketException e) {
+                // ignore
+            }
+        }
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                throw new IOException("Stand-in server threads didn't stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
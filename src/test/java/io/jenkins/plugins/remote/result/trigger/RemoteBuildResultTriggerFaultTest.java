@@ -0,0 +1,238 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import hudson.model.FreeStyleProject;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.remote.result.trigger.FaultyRemoteJenkins.Fault;
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.metrics.RemoteTriggerMetrics;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.model.PollHistoryEntry;
+import io.jenkins.plugins.remote.result.trigger.model.RemoteJobStatus;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollHistory;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import org.jenkinsci.plugins.xtriggerapi.XTriggerLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Error paths of a poll against a stand-in remote injecting faults
+ */
+@WithJenkins
+class RemoteBuildResultTriggerFaultTest {
+    private static final int TIMEOUT_SECONDS = 2;
+    /**
+     * slow faults last much longer than the request timeout
+     */
+    private static final long FAULT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    /**
+     * a poll makes three requests, only one of them hits the fault
+     */
+    private static final long MAX_POLL_MILLIS = TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS + 3);
+    private static final String LAST_BUILD = "/job/upstream/lastBuild/buildNumber";
+    private static final String JOB = "/job/upstream/api/json?tree=firstBuild[number]";
+    private static final String BUILD = "/job/upstream/3/api/json";
+
+    private FaultyRemoteJenkins remote;
+
+    @BeforeEach
+    void startRemote() throws Exception {
+        remote = new FaultyRemoteJenkins(FAULT_MILLIS);
+        remote.respond(LAST_BUILD, "3");
+        remote.respond(JOB, "{\"firstBuild\":{\"number\":1}}");
+        remote.respond(BUILD, build("SUCCESS", false));
+    }
+
+    @AfterEach
+    void stopRemote() throws Exception {
+        remote.close();
+    }
+
+    @Test
+    void testFailedPollsKeepCursorAndTriggerOnce(JenkinsRule j) throws Exception {
+        for (RemoteTransport.Type type : RemoteTransport.Type.values()) {
+            Fixture fixture = newFixture(j, type);
+            try {
+                for (Fault fault : List.of(Fault.SERVER_ERROR, Fault.TOO_MANY_REQUESTS, Fault.RESET, Fault.TRUNCATED_JSON)) {
+                    remote.fail(BUILD, fault);
+                    assertEquals(PollHistoryEntry.Verdict.ERROR, poll(fixture).getVerdict(), type + " " + fault);
+                    assertEquals(0, RemoteJobResultUtils.getCheckedNumber(fixture.project, fixture.jobInfo), type + " " + fault);
+                    assertNull(getTriggeredNumber(fixture), type + " " + fault);
+                }
+                remote.heal(BUILD);
+                assertMatchedOnce(fixture);
+            } finally {
+                fixture.trigger.stop();
+            }
+        }
+    }
+
+    @Test
+    void testBuildingAndDeletedServer(JenkinsRule j) throws Exception {
+        Fixture fixture = newFixture(j, RemoteTransport.Type.OKHTTP);
+        try {
+            remote.respond(BUILD, build(null, true));
+            assertEquals(PollHistoryEntry.Verdict.BUILDING, poll(fixture).getVerdict());
+            assertEquals(0, RemoteJobResultUtils.getCheckedNumber(fixture.project, fixture.jobInfo));
+            assertNull(getTriggeredNumber(fixture));
+
+            // 远程服务器配置被删除
+            RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor descriptor = RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get();
+            List<RemoteJenkinsServer> servers = Arrays.asList(descriptor.getRemoteJenkinsServers());
+            descriptor.setRemoteJenkinsServers(List.of());
+            remote.respond(BUILD, build("SUCCESS", false));
+            assertEquals(PollHistoryEntry.Verdict.ERROR, poll(fixture).getVerdict());
+            assertEquals("Remote server not found", getStatus(fixture).getLastError());
+            assertNull(getTriggeredNumber(fixture));
+
+            descriptor.setRemoteJenkinsServers(servers);
+            assertMatchedOnce(fixture);
+        } finally {
+            fixture.trigger.stop();
+        }
+    }
+
+    @Test
+    void testSlowRemoteIsBounded(JenkinsRule j) throws Exception {
+        for (RemoteTransport.Type type : RemoteTransport.Type.values()) {
+            Fixture fixture = newFixture(j, type);
+            try {
+                remote.fail(LAST_BUILD, Fault.LATENCY);
+                assertEquals(PollHistoryEntry.Verdict.ERROR, poll(fixture).getVerdict(), type + " latency");
+                remote.heal(LAST_BUILD);
+
+                remote.fail(BUILD, Fault.SLOWLORIS);
+                assertEquals(PollHistoryEntry.Verdict.ERROR, poll(fixture).getVerdict(), type + " slowloris");
+                assertEquals(0, RemoteJobResultUtils.getCheckedNumber(fixture.project, fixture.jobInfo), type.name());
+                remote.heal(BUILD);
+
+                assertMatchedOnce(fixture);
+            } finally {
+                fixture.trigger.stop();
+            }
+        }
+        // 超时的请求不能留下阻塞在读取上的线程
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (hasRequestThread() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertFalse(hasRequestThread(), "a thread is still inside a remote request");
+    }
+
+    @Test
+    void testOversizedBuildIsNarrowed(JenkinsRule j) throws Exception {
+        String narrowed = BUILD + "?tree=number,url,result,building,inProgress,timestamp,duration,"
+                + "actions[_class,parameters[name,value],result]";
+        for (RemoteTransport.Type type : RemoteTransport.Type.values()) {
+            Fixture fixture = newFixture(j, type);
+            RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get()
+                    .getRemoteJenkinsServer("faulty-" + type).setMaxResponseSize(1);
+            Meter oversized = RemoteTriggerMetrics.registry()
+                    .meter(MetricRegistry.name(RemoteTriggerMetrics.PREFIX, "http", "oversized", "faulty-" + type));
+            long rejected = oversized.getCount();
+            try {
+                // 完整结果和精简结果都超过限制
+                remote.respond(BUILD, buildWithTestResults());
+                remote.respond(narrowed, buildWithTestResults());
+                assertEquals(PollHistoryEntry.Verdict.ERROR, poll(fixture).getVerdict(), type.name());
+                assertEquals(rejected + 2, oversized.getCount(), type.name());
+                assertEquals(0, RemoteJobResultUtils.getCheckedNumber(fixture.project, fixture.jobInfo), type.name());
+
+                remote.respond(narrowed, build("SUCCESS", false));
+                assertMatchedOnce(fixture);
+            } finally {
+                fixture.trigger.stop();
+            }
+        }
+    }
+
+    /**
+     * the healed remote fires exactly once, later polls of the same build don't fire again
+     */
+    private void assertMatchedOnce(Fixture fixture) throws Exception {
+        assertEquals(PollHistoryEntry.Verdict.MATCHED, poll(fixture).getVerdict());
+        assertTrue(fixture.trigger.checkIfModified(null, new XTriggerLog(StreamTaskListener.fromStdout())));
+        assertEquals(3, getTriggeredNumber(fixture));
+        assertEquals(3, RemoteJobResultUtils.getCheckedNumber(fixture.project, fixture.jobInfo));
+
+        assertEquals(PollHistoryEntry.Verdict.NO_NEW_BUILD, poll(fixture).getVerdict());
+        assertEquals(PollHistoryEntry.Verdict.NO_NEW_BUILD, poll(fixture).getVerdict());
+        assertEquals(1, getStatus(fixture).getFiredCount());
+    }
+
+    private PollHistoryEntry poll(Fixture fixture) {
+        long start = System.nanoTime();
+        fixture.trigger.pollRemoteJob(fixture.jobInfo);
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(took < MAX_POLL_MILLIS, "poll took " + took + "ms");
+        return RemotePollHistory.get(fixture.project).get(fixture.jobInfo.getId()).get(0);
+    }
+
+    private static Integer getTriggeredNumber(Fixture fixture) throws Exception {
+        List<JobResultInfo> infos = RemoteJobResultUtils.getSavedJobInfos(fixture.project);
+        return infos.isEmpty() ? null : infos.get(0).getTriggeredNumber();
+    }
+
+    private static RemoteJobStatus getStatus(Fixture fixture) {
+        return RemoteJobStatusIndex.getStatuses().stream()
+                .filter(status -> status.getJobFullName().equals(fixture.project.getFullName()))
+                .findFirst().orElseThrow();
+    }
+
+    private static boolean hasRequestThread() {
+        String requestClass = RemoteJobResultUtils.class.getName();
+        return Thread.getAllStackTraces().values().stream().anyMatch(stack -> Arrays.stream(stack)
+                .anyMatch(frame -> frame.getClassName().equals(requestClass)
+                        && frame.getMethodName().equals("requestRemoteStream")));
+    }
+
+    private Fixture newFixture(JenkinsRule j, RemoteTransport.Type type) throws Exception {
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("faulty-" + type);
+        server.setUrl(remote.getUrl());
+        server.setAuth2(NoneAuth.INSTANCE);
+        server.setTransportType(type);
+        server.setRequestTimeout(TIMEOUT_SECONDS);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer(server.getId());
+        jobInfo.setRemoteJobUrl(remote.getUrl() + "job/upstream");
+        jobInfo.setUid(type.name());
+        jobInfo.setTriggerResults(List.of(true, false, false, false, false));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        // 禁用后xtrigger不会异步消费命中结果，由测试直接调用checkIfModified
+        project.disable();
+        RemoteBuildResultTrigger trigger = new RemoteBuildResultTrigger("H/5 * * * *", List.of(jobInfo));
+        project.addTrigger(trigger);
+        trigger.start(project, true);
+        return new Fixture(project, jobInfo, trigger);
+    }
+
+    private String build(String result, boolean building) {
+        return "{\"number\":3,\"url\":\"" + remote.getUrl() + "job/upstream/3/\""
+                + ",\"result\":" + (result != null ? "\"" + result + "\"" : "null")
+                + ",\"building\":" + building + "}";
+    }
+
+    private String buildWithTestResults() {
+        return "{\"number\":3,\"url\":\"" + remote.getUrl() + "job/upstream/3/\",\"result\":\"SUCCESS\",\"building\":false,"
+                + "\"actions\":[{\"_class\":\"hudson.tasks.junit.TestResultAction\",\"cases\":\"" + TestConst.garbled5KString1 + "\"}]}";
+    }
+
+    private record Fixture(FreeStyleProject project, RemoteJobInfo jobInfo, RemoteBuildResultTrigger trigger) {
+    }
+}
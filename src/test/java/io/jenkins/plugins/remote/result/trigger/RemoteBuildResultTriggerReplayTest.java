@@ -0,0 +1,281 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import hudson.model.FreeStyleProject;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.model.PollHistoryEntry;
+import io.jenkins.plugins.remote.result.trigger.model.RemoteJobStatus;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteJobStatusIndex;
+import io.jenkins.plugins.remote.result.trigger.poll.RemotePollHistory;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStore;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteFixtureArchive;
+import io.jenkins.plugins.remote.result.trigger.transport.ReplayTransport;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import org.jenkinsci.plugins.xtriggerapi.XTriggerLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays a recorded polling trace through the trigger, no network involved
+ */
+@WithJenkins
+class RemoteBuildResultTriggerReplayTest {
+    private static final String SERVER_URL = "https://remote.example.com/";
+    private static final String JOB_URL = SERVER_URL + "job/upstream";
+
+    @AfterEach
+    void resetTransports() {
+        RemoteTransports.setFactory(null);
+    }
+
+    @Test
+    void testReplayedTraceTriggersOnce(JenkinsRule j, @TempDir Path dir) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        // poll 1: build 3 succeeded
+        add(archive, "/lastBuild/buildNumber", "3");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "/3/api/json", build(3, "SUCCESS", false).replace("}",
+                ",\"actions\":[{\"_class\":\"hudson.model.ParametersAction\",\"parameters\":[{\"name\":\"ENV\",\"value\":\"test\"}]}]}"));
+        // poll 2: build 4 is running
+        add(archive, "/lastBuild/buildNumber", "4");
+        add(archive, "/4/api/json", build(4, null, true));
+        // poll 3: build 4 failed
+        add(archive, "/4/api/json", build(4, "FAILURE", false));
+        File file = dir.resolve("replay.zip").toFile();
+        archive.save(file);
+        RemoteFixtureArchive replay = RemoteFixtureArchive.load(file);
+        assertEquals(archive.size(), replay.size());
+        RemoteTransports.setFactory(server -> new ReplayTransport(replay, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        XTriggerLog log = new XTriggerLog(StreamTaskListener.fromStdout());
+
+        try {
+            trigger.pollRemoteJob(jobInfo);
+            assertTrue(trigger.checkIfModified(null, log), "build 3 should fire the trigger");
+            JobResultInfo saved = RemoteJobResultUtils.getSavedJobInfos(project).get(0);
+            assertEquals(3, saved.getTriggeredNumber());
+            assertEquals(3, saved.getCheckedNumber());
+            // 只保存摘要，参数在清理actions之前提取
+            assertEquals(3, saved.getBuild().getNumber());
+            assertEquals(Map.of("ENV", "test"), saved.getBuild().getParameters());
+            assertNull(saved.getBuildResult());
+
+            trigger.pollRemoteJob(jobInfo);
+            trigger.pollRemoteJob(jobInfo);
+            saved = RemoteJobResultUtils.getSavedJobInfos(project).get(0);
+            assertEquals(3, saved.getTriggeredNumber());
+            assertEquals(4, saved.getCheckedNumber());
+
+            List<PollHistoryEntry> history = RemotePollHistory.get(project).get(jobInfo.getId());
+            assertEquals(List.of(PollHistoryEntry.Verdict.RESULT_SKIPPED, PollHistoryEntry.Verdict.BUILDING,
+                    PollHistoryEntry.Verdict.MATCHED), history.stream().map(PollHistoryEntry::getVerdict).toList());
+            assertFalse(trigger.checkIfModified(null, log), "nothing left to fire");
+        } finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testSwitchingStateStoreDoesNotRetrigger(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        add(archive, "/lastBuild/buildNumber", "3");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "/3/api/json", build(3, "SUCCESS", false));
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        XTriggerLog log = new XTriggerLog(StreamTaskListener.fromStdout());
+        try {
+            trigger.pollRemoteJob(jobInfo);
+            assertTrue(trigger.checkIfModified(null, log), "build 3 should fire the trigger");
+
+            // 切换存储时复制状态，已触发的构建不会再次触发
+            RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setStateStore(RemoteStateStore.Type.JOURNAL);
+            trigger.pollRemoteJob(jobInfo);
+            assertFalse(trigger.checkIfModified(null, log), "build 3 already fired the trigger");
+            JobResultInfo saved = RemoteJobResultUtils.getSavedJobInfos(project).get(0);
+            assertEquals(3, saved.getTriggeredNumber());
+            assertEquals(3, saved.getCheckedNumber());
+        } finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testMatchSurvivesReplacedTrigger(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        add(archive, "/lastBuild/buildNumber", "3");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "/3/api/json", build(3, "SUCCESS", false));
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        trigger.pollRemoteJob(jobInfo);
+        trigger.stop();
+
+        // 轮询命中后任务被重新配置，新的触发器仍然会触发
+        RemoteBuildResultTrigger replaced = newTrigger(project, jobInfo);
+        XTriggerLog log = new XTriggerLog(StreamTaskListener.fromStdout());
+        try {
+            assertTrue(replaced.checkIfModified(null, log), "build 3 should fire the replaced trigger");
+            assertFalse(replaced.checkIfModified(null, log), "build 3 already fired the trigger");
+        } finally {
+            replaced.stop();
+        }
+    }
+
+    @Test
+    void testBuildGapWhileBuildRunning(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        // poll 1: build 3 failed
+        add(archive, "/lastBuild/buildNumber", "3");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":3}}");
+        add(archive, "/3/api/json", build(3, "FAILURE", false));
+        // poll 2: build 5 is running, build 4 failed
+        add(archive, "/lastBuild/buildNumber", "5");
+        add(archive, "/5/api/json", build(5, null, true));
+        // poll 3: build 5 failed
+        add(archive, "/lastBuild/buildNumber", "5");
+        add(archive, "/5/api/json", build(5, "FAILURE", false));
+        add(archive, "/4/api/json", build(4, "FAILURE", false));
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        try {
+            trigger.pollRemoteJob(jobInfo);
+            assertEquals(0, getStatus(project, jobInfo).getGap());
+
+            // 运行中的构建阻止了检查，4和5都在等待
+            trigger.pollRemoteJob(jobInfo);
+            RemoteJobStatus status = getStatus(project, jobInfo);
+            assertEquals(5, status.getLastBuildNumber());
+            assertEquals(3, status.getCheckedNumber());
+            assertEquals(2, status.getGap());
+
+            trigger.pollRemoteJob(jobInfo);
+            assertEquals(0, getStatus(project, jobInfo).getGap());
+        } finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testBacklogIsEvaluatedNewestFirst(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        add(archive, "/lastBuild/buildNumber", "6");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "/6/api/json", build(6, "FAILURE", false));
+        add(archive, "/5/api/json", build(5, "FAILURE", false));
+        add(archive, "/4/api/json", build(4, "SUCCESS", false));
+        add(archive, "/3/api/json", build(3, "SUCCESS", false));
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        try {
+            // 预取了更早的构建，仍然按从新到旧命中最新的成功构建
+            trigger.pollRemoteJob(jobInfo);
+            JobResultInfo saved = RemoteJobResultUtils.getSavedJobInfos(project).get(0);
+            assertEquals(4, saved.getTriggeredNumber());
+            assertEquals(6, saved.getCheckedNumber());
+            PollHistoryEntry entry = RemotePollHistory.get(project).get(jobInfo.getId()).get(0);
+            assertEquals(PollHistoryEntry.Verdict.MATCHED, entry.getVerdict());
+            assertEquals(4, entry.getNumber());
+        } finally {
+            trigger.stop();
+        }
+    }
+
+    @Test
+    void testStatusQuerySkipsUnselectedBuilds(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        add(archive, "/lastBuild/buildNumber", "6");
+        add(archive, "/api/json?tree=firstBuild[number]", "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "/api/json?tree=builds[number,result,building,inProgress]{0,6}", "{\"builds\":["
+                + build(6, "FAILURE", false) + "," + build(5, "ABORTED", false) + ","
+                + build(4, "SUCCESS", false) + "," + build(3, null, true) + "]}");
+        // 只录制了可能触发的构建，请求其他构建的完整结果会得到404
+        add(archive, "/4/api/json", build(4, "SUCCESS", false));
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        FreeStyleProject project = j.createFreeStyleProject();
+        RemoteJobInfo jobInfo = newJobInfo();
+        RemoteBuildResultTrigger trigger = newTrigger(project, jobInfo);
+        try {
+            trigger.pollRemoteJob(jobInfo);
+            JobResultInfo saved = RemoteJobResultUtils.getSavedJobInfos(project).get(0);
+            assertEquals(4, saved.getTriggeredNumber());
+            assertEquals(6, saved.getCheckedNumber());
+            PollHistoryEntry entry = RemotePollHistory.get(project).get(jobInfo.getId()).get(0);
+            assertEquals(PollHistoryEntry.Verdict.MATCHED, entry.getVerdict());
+            assertEquals(4, entry.getNumber());
+        } finally {
+            trigger.stop();
+        }
+    }
+
+    private static RemoteJobStatus getStatus(FreeStyleProject project, RemoteJobInfo jobInfo) {
+        return RemoteJobStatusIndex.getStatuses().stream()
+                .filter(status -> status.getJobFullName().equals(project.getFullName())
+                        && status.getRemoteJob().equals(jobInfo.getId()))
+                .findFirst().orElseThrow();
+    }
+
+    private static RemoteJobInfo newJobInfo() {
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("replay");
+        server.setUrl(SERVER_URL);
+        server.setAuth2(NoneAuth.INSTANCE);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer("replay");
+        jobInfo.setRemoteJobUrl(JOB_URL);
+        jobInfo.setUid("replay");
+        jobInfo.setTriggerResults(List.of(true, false, false, false, false));
+        return jobInfo;
+    }
+
+    private static RemoteBuildResultTrigger newTrigger(FreeStyleProject project, RemoteJobInfo jobInfo) throws Exception {
+        // 禁用后xtrigger不会异步消费命中结果，由测试直接调用checkIfModified
+        project.disable();
+        RemoteBuildResultTrigger trigger = new RemoteBuildResultTrigger("H/5 * * * *", List.of(jobInfo));
+        project.addTrigger(trigger);
+        trigger.start(project, true);
+        return trigger;
+    }
+
+    private static void add(RemoteFixtureArchive archive, String path, String body) {
+        archive.add(0, JOB_URL + path, 200,
+                Map.of("Content-Type", "application/json"), body.getBytes(StandardCharsets.UTF_8), 5);
+    }
+
+    private static String build(int number, String result, boolean building) {
+        return "{\"number\":" + number + ",\"url\":\"" + JOB_URL + "/" + number + "/\""
+                + ",\"result\":" + (result != null ? "\"" + result + "\"" : "null")
+                + ",\"building\":" + building + "}";
+    }
+}
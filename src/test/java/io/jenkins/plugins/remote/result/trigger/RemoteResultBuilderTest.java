@@ -0,0 +1,78 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * pubResult reading the result json from a workspace file
+ */
+@WithJenkins
+class RemoteResultBuilderTest {
+
+    @Test
+    void testResultFileIsPublished(JenkinsRule j) throws Exception {
+        FreeStyleProject project = j.createFreeStyleProject();
+        project.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws IOException, InterruptedException {
+                build.getWorkspace().child("out/result.json")
+                        .write("{\"version\":\"1.0\",\"tests\":{\"passed\":3}}", StandardCharsets.UTF_8.name());
+                return true;
+            }
+        });
+        RemoteResultBuilder builder = new RemoteResultBuilder(null);
+        builder.setFile("out/result.json");
+        project.getBuildersList().add(builder);
+
+        FreeStyleBuild build = j.buildAndAssertSuccess(project);
+        RemoteResultAction action = build.getAction(RemoteResultAction.class);
+        assertEquals("1.0", action.getResult().get("version"));
+        assertEquals(Map.of("passed", 3), action.getResult().get("tests"));
+    }
+
+    @Test
+    void testOversizedOrInvalidFileFails(JenkinsRule j) throws Exception {
+        FreeStyleProject project = j.createFreeStyleProject();
+        project.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws IOException, InterruptedException {
+                // 稀疏文件，只有大小超过限制
+                try (RandomAccessFile file = new RandomAccessFile(build.getWorkspace().child("big.json").getRemote(), "rw")) {
+                    file.setLength(RemoteResultBuilder.MAX_FILE_SIZE + 1);
+                }
+                build.getWorkspace().child("list.json").write("[1,2]", StandardCharsets.UTF_8.name());
+                return true;
+            }
+        });
+        RemoteResultBuilder builder = new RemoteResultBuilder(null);
+        builder.setFile("big.json");
+        project.getBuildersList().add(builder);
+
+        FreeStyleBuild build = j.assertBuildStatus(Result.FAILURE, project.scheduleBuild2(0));
+        j.assertLogContains("Result json file too large", build);
+        assertNull(build.getAction(RemoteResultAction.class));
+
+        builder.setFile("list.json");
+        build = j.assertBuildStatus(Result.FAILURE, project.scheduleBuild2(0));
+        j.assertLogContains("Not Json Map File", build);
+
+        builder.setFile("missing.json");
+        build = j.assertBuildStatus(Result.FAILURE, project.scheduleBuild2(0));
+        j.assertLogContains("Result json file not found", build);
+    }
+}
@@ -0,0 +1,91 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import hudson.model.FreeStyleProject;
+import hudson.util.Secret;
+import io.jenkins.plugins.remote.result.trigger.auth2.TokenAuth;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requests are sent with the remote session instead of the credentials, and retried with the credentials
+ * once the remote rejects the session
+ */
+@WithJenkins
+class RemoteSessionReuseTest {
+    private static final String JOB = "/job/upstream/api/json";
+    private static final String AUTHORIZATION = "Basic " + Base64.encodeBase64String("user:token".getBytes(StandardCharsets.UTF_8));
+
+    private FaultyRemoteJenkins remote;
+
+    @BeforeEach
+    void startRemote() throws Exception {
+        remote = new FaultyRemoteJenkins(0);
+        remote.respond(JOB, "{\"firstBuild\":{\"number\":1}}");
+        remote.requireAuthorization(AUTHORIZATION);
+    }
+
+    @AfterEach
+    void stopRemote() throws Exception {
+        remote.close();
+        RemoteTransports.setFactory(null);
+    }
+
+    @Test
+    void testRejectedSessionIsRetriedWithCredentialsOkHttp(JenkinsRule j) throws Exception {
+        assertSessionReused(j, RemoteTransport.Type.OKHTTP);
+    }
+
+    @Test
+    void testRejectedSessionIsRetriedWithCredentialsJdk(JenkinsRule j) throws Exception {
+        assertSessionReused(j, RemoteTransport.Type.JDK);
+    }
+
+    private void assertSessionReused(JenkinsRule j, RemoteTransport.Type type) throws Exception {
+        RemoteJenkinsServer server = newServer(type);
+        FreeStyleProject project = j.createFreeStyleProject();
+
+        assertNotNull(request(project));
+        assertNotNull(request(project));
+        assertEquals(List.of("credentials", "session"), remote.getLogins());
+        // 会话只属于建立它的凭据
+        assertFalse(RemoteTransports.get(server).hasSession(remote.getUrl() + JOB.substring(1), "other"));
+
+        // 远程重启或会话过期，带凭据重试一次并建立新会话
+        remote.expireSessions();
+        assertNotNull(request(project));
+        assertNotNull(request(project));
+        assertEquals(List.of("credentials", "session", "session", "credentials", "session"), remote.getLogins());
+    }
+
+    private String request(FreeStyleProject project) throws Exception {
+        return RemoteJobResultUtils.requestRemoteStream(project, "remote", remote.getUrl() + JOB.substring(1), Map.of(),
+                in -> new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private RemoteJenkinsServer newServer(RemoteTransport.Type type) {
+        TokenAuth auth = new TokenAuth();
+        auth.setUserName("user");
+        auth.setApiToken(Secret.fromString("token"));
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("remote");
+        server.setUrl(remote.getUrl());
+        server.setAuth2(auth);
+        server.setTransportType(type);
+        server.setReuseSession(true);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+        return server;
+    }
+}
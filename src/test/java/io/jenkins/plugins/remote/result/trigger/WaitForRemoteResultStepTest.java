@@ -0,0 +1,95 @@
+package io.jenkins.plugins.remote.result.trigger;
+
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.poll.RemoteResultWaitPoller;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.junit.jupiter.JenkinsSessionExtension;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * waitForRemoteResult is completed by the shared poller and keeps waiting across a restart
+ */
+class WaitForRemoteResultStepTest {
+    private static final String LAST_COMPLETED = "/job/upstream/lastCompletedBuild/buildNumber";
+
+    @RegisterExtension
+    private final JenkinsSessionExtension sessions = new JenkinsSessionExtension();
+    private FaultyRemoteJenkins remote;
+
+    @BeforeEach
+    void startRemote() throws Exception {
+        remote = new FaultyRemoteJenkins(0);
+        remote.respond(LAST_COMPLETED, "3");
+    }
+
+    @AfterEach
+    void stopRemote() throws Exception {
+        remote.close();
+    }
+
+    @Test
+    void testWaitCompletesAfterRestart() throws Throwable {
+        sessions.then(j -> {
+            RemoteJenkinsServer server = new RemoteJenkinsServer();
+            server.setId("remote");
+            server.setUrl(remote.getUrl());
+            server.setAuth2(NoneAuth.INSTANCE);
+            RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+
+            WorkflowJob project = j.createProject(WorkflowJob.class, "waiter");
+            project.setDefinition(new CpsFlowDefinition("def build = waitForRemoteResult remoteServer: 'remote', remoteJobUrl: '"
+                    + remote.getUrl() + "job/upstream'\necho \"matched #${build.number} ${build.result}\"", true));
+            WorkflowRun run = project.scheduleBuild2(0).waitForStart();
+            j.waitForMessage("Waiting for a [SUCCESS] build", run);
+            // 第一次轮询只记录已完成的构建，之后完成的构建才会匹配
+            await(() -> RemoteResultWaitPoller.get().getGroupCount() == 1);
+            RemoteResultWaitPoller.get().run();
+            await(() -> Integer.valueOf(3).equals(getExecution(run).getCheckedNumber()));
+            assertTrue(run.isBuilding());
+        });
+        remote.respond(LAST_COMPLETED, "4");
+        remote.respond("/job/upstream/4/api/json", "{\"number\":4,\"url\":\"" + remote.getUrl()
+                + "job/upstream/4/\",\"result\":\"SUCCESS\",\"building\":false}");
+        sessions.then(j -> {
+            WorkflowRun run = j.jenkins.getItemByFullName("waiter", WorkflowJob.class).getBuildByNumber(1);
+            // 重启后重新注册到轮询器
+            await(() -> RemoteResultWaitPoller.get().getGroupCount() == 1);
+            assertEquals(3, getExecution(run).getCheckedNumber());
+            RemoteResultWaitPoller.get().run();
+            j.assertBuildStatusSuccess(j.waitForCompletion(run));
+            j.assertLogContains("matched #4 SUCCESS", run);
+            assertEquals(0, RemoteResultWaitPoller.get().getGroupCount());
+        });
+    }
+
+    private static WaitForRemoteResultStep.WaitForRemoteResultStepExecution getExecution(WorkflowRun run) throws Exception {
+        for (StepExecution execution : run.getExecution().getCurrentExecutions(false).get()) {
+            if (execution instanceof WaitForRemoteResultStep.WaitForRemoteResultStepExecution waiting) {
+                return waiting;
+            }
+        }
+        throw new AssertionError("waitForRemoteResult is not running");
+    }
+
+    private static void await(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!condition.call()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.remote.result.trigger.auth2;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.model.FreeStyleProject;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteRequest;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteResponse;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import io.jenkins.plugins.remote.result.trigger.utils.RemoteJobResultUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cached Authorization headers are resolved again once credentials are saved or the remote rejects them
+ */
+@WithJenkins
+class AuthHeaderCacheTest {
+    private static final String SERVER_URL = "https://remote.example.com/";
+
+    @AfterEach
+    void resetTransports() {
+        RemoteTransports.setFactory(null);
+        AuthHeaderCache.invalidateAll();
+    }
+
+    @Test
+    void testSavedCredentialsAreResolvedAgain(JenkinsRule j) throws Exception {
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(newCredentials("old"));
+        provider.save();
+        RemoteJenkinsServer server = newServer();
+        FreeStyleProject project = j.createFreeStyleProject();
+        assertEquals(basic("old"), AuthHeaderCache.getHeader(server, project));
+
+        // 未保存的修改不会被察觉，命中缓存
+        provider.getCredentials().set(0, newCredentials("new"));
+        assertEquals(basic("old"), AuthHeaderCache.getHeader(server, project));
+
+        provider.save();
+        assertEquals(basic("new"), AuthHeaderCache.getHeader(server, project));
+    }
+
+    @Test
+    void testRejectedHeaderIsResolvedAgain(JenkinsRule j) throws Exception {
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(newCredentials("old"));
+        provider.save();
+        newServer();
+        FreeStyleProject project = j.createFreeStyleProject();
+        AtomicReference<String> accepted = new AtomicReference<>(basic("old"));
+        List<String> sent = new CopyOnWriteArrayList<>();
+        RemoteTransports.setFactory(server -> new AuthTransport(accepted, sent));
+
+        assertEquals("ok", request(project));
+        // 远程修改了密码，凭据在不触发保存的情况下变更，例如外部凭据提供者
+        accepted.set(basic("new"));
+        provider.getCredentials().set(0, newCredentials("new"));
+        UnSuccessfulRequestStatusException e = assertThrows(UnSuccessfulRequestStatusException.class, () -> request(project));
+        assertEquals(401, e.getStatus());
+        assertEquals("ok", request(project));
+        assertEquals(List.of(basic("old"), basic("old"), basic("new")), sent);
+    }
+
+    private static String request(FreeStyleProject project) throws Exception {
+        return RemoteJobResultUtils.requestRemoteStream(project, "remote", SERVER_URL + "job/upstream/api/json", Map.of(),
+                in -> new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static RemoteJenkinsServer newServer() {
+        CredentialsAuth auth = new CredentialsAuth();
+        auth.setCredentialsId("remote-credentials");
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("remote");
+        server.setUrl(SERVER_URL);
+        server.setAuth2(auth);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+        return server;
+    }
+
+    private static UsernamePasswordCredentialsImpl newCredentials(String password) throws Exception {
+        return new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "remote-credentials", null, "user", password);
+    }
+
+    private static String basic(String password) {
+        return "Basic " + Base64.encodeBase64String(("user:" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * answers 200 to the accepted Authorization header and 401 to any other
+     */
+    private static class AuthTransport implements RemoteTransport {
+        private final AtomicReference<String> accepted;
+        private final List<String> sent;
+
+        AuthTransport(AtomicReference<String> accepted, List<String> sent) {
+            this.accepted = accepted;
+            this.sent = sent;
+        }
+
+        @Override
+        public RemoteResponse get(RemoteRequest request) {
+            String authorization = request.getHeaders().get("Authorization");
+            sent.add(authorization);
+            if (!accepted.get().equals(authorization)) {
+                return new RemoteResponse(401, name -> null, null, null);
+            }
+            return new RemoteResponse(200, name -> null, new ByteArrayInputStream("ok".getBytes(StandardCharsets.UTF_8)), null);
+        }
+
+        @Override
+        public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+            return CompletableFuture.completedFuture(get(request));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.remote.result.trigger.metrics;
+
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Remote poll timers are removed once no job polls the remote job anymore
+ */
+@WithJenkins
+class RemoteTriggerMetricsTest {
+    private static final String REMOTE_TIMERS = RemoteTriggerMetrics.PREFIX + ".poll.duration.remote.";
+
+    @Test
+    void testRemoteTimersFollowPolledJobs(JenkinsRule j) {
+        RemoteJobInfo upstream = newJobInfo("https://remote.example.com/job/upstream");
+        RemoteJobInfo other = newJobInfo("https://remote.example.com/job/other");
+        RemoteTriggerMetrics.beginPoll();
+        RemoteTriggerMetrics.endPoll("a", "server", upstream.getRemoteJobUrl(), 1);
+        RemoteTriggerMetrics.beginPoll();
+        RemoteTriggerMetrics.endPoll("a", "server", other.getRemoteJobUrl(), 1);
+        RemoteTriggerMetrics.beginPoll();
+        RemoteTriggerMetrics.endPoll("b", "server", upstream.getRemoteJobUrl(), 1);
+        assertEquals(Set.of("server.https://remote.example.com/job/upstream", "server.https://remote.example.com/job/other"),
+                getRemoteTimers());
+
+        // a 不再轮询 other，没有其他任务轮询，计时器移除
+        RemoteTriggerMetrics.retainRemote("a", List.of(upstream));
+        assertEquals(Set.of("server.https://remote.example.com/job/upstream"), getRemoteTimers());
+
+        // b 仍在轮询 upstream
+        RemoteTriggerMetrics.removeJob("a");
+        assertEquals(Set.of("server.https://remote.example.com/job/upstream"), getRemoteTimers());
+        RemoteTriggerMetrics.removeJob("b");
+        assertEquals(Set.of(), getRemoteTimers());
+    }
+
+    private static RemoteJobInfo newJobInfo(String url) {
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer("server");
+        jobInfo.setRemoteJobUrl(url);
+        return jobInfo;
+    }
+
+    private static Set<String> getRemoteTimers() {
+        return RemoteTriggerMetrics.registry().getTimers().keySet().stream()
+                .filter(name -> name.startsWith(REMOTE_TIMERS))
+                .map(name -> name.substring(REMOTE_TIMERS.length()))
+                .collect(Collectors.toSet());
+    }
+}
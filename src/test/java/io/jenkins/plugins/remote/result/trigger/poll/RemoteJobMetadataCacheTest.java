@@ -0,0 +1,79 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.model.FreeStyleProject;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.exceptions.UnSuccessfulRequestStatusException;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteFixtureArchive;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import io.jenkins.plugins.remote.result.trigger.transport.ReplayTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Job metadata is reused until the remote job changes, missing jobs are not requested while backed off
+ */
+@WithJenkins
+class RemoteJobMetadataCacheTest {
+    private static final String SERVER_URL = "https://remote.example.com/";
+
+    @AfterEach
+    void resetTransports() {
+        RemoteTransports.setFactory(null);
+    }
+
+    @Test
+    void testFirstBuildIsCachedAndMissingJobBackedOff(JenkinsRule j) throws Exception {
+        RemoteFixtureArchive archive = new RemoteFixtureArchive();
+        // 每次请求依次返回录制的下一个响应
+        add(archive, "job/upstream/api/json?tree=firstBuild[number]", 200, "{\"firstBuild\":{\"number\":1}}");
+        add(archive, "job/upstream/api/json?tree=firstBuild[number]", 200, "{\"firstBuild\":{\"number\":5}}");
+        add(archive, "job/missing/api/json?tree=firstBuild[number]", 404, "");
+        add(archive, "job/missing/api/json?tree=firstBuild[number]", 200, "{\"firstBuild\":{\"number\":1}}");
+        RemoteTransports.setFactory(server -> new ReplayTransport(archive, 0));
+
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("replay");
+        server.setUrl(SERVER_URL);
+        server.setAuth2(NoneAuth.INSTANCE);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+        FreeStyleProject project = j.createFreeStyleProject();
+
+        RemoteJobInfo upstream = jobInfo("upstream");
+        assertEquals(1, RemoteJobMetadataCache.getFirstBuildNumber(project, upstream, 12, 10));
+        assertEquals(1, RemoteJobMetadataCache.getFirstBuildNumber(project, upstream, 13, 12));
+        // 最新构建号回退，重新请求
+        assertEquals(5, RemoteJobMetadataCache.getFirstBuildNumber(project, upstream, 6, 12));
+
+        RemoteJobInfo missing = jobInfo("missing");
+        UnSuccessfulRequestStatusException e = assertThrows(UnSuccessfulRequestStatusException.class,
+                () -> RemoteJobMetadataCache.get(project, missing));
+        assertEquals(404, e.getStatus());
+        // 退避期间不请求远程，否则会拿到录制的200
+        assertThrows(UnSuccessfulRequestStatusException.class, () -> RemoteJobMetadataCache.checkExists(missing));
+        assertThrows(UnSuccessfulRequestStatusException.class, () -> RemoteJobMetadataCache.get(project, missing));
+    }
+
+    private static RemoteJobInfo jobInfo(String name) {
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer("replay");
+        jobInfo.setRemoteJobUrl(SERVER_URL + "job/" + name);
+        jobInfo.setUid(name);
+        return jobInfo;
+    }
+
+    private static void add(RemoteFixtureArchive archive, String path, int status, String body) {
+        archive.add(0, SERVER_URL + path, status,
+                Map.of("Content-Type", "application/json"), body.getBytes(StandardCharsets.UTF_8), 5);
+    }
+}
@@ -0,0 +1,47 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemotePollSchedulerTest {
+
+    @Test
+    void testSlotIsDeterministicAndInsideInterval() {
+        long interval = TimeUnit.MINUTES.toMillis(1);
+        long tick = TimeUnit.DAYS.toMillis(20000);
+        Set<Long> slots = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String key = "folder/job-" + i + "#remote";
+            long slot = RemotePollScheduler.getSlot(key, interval, tick);
+            assertEquals(slot, RemotePollScheduler.getSlot(key, interval, tick), "slot not deterministic");
+            assertTrue(slot >= tick && slot < tick + interval, "slot outside interval");
+            slots.add(slot);
+        }
+        assertTrue(slots.size() > 50, "polls are not spread");
+    }
+
+    @Test
+    void testMisalignedTickIsSpread() {
+        long interval = TimeUnit.HOURS.toMillis(1);
+        // 30 * * * *，触发时间在周期中间
+        long tick = TimeUnit.DAYS.toMillis(20000) + TimeUnit.MINUTES.toMillis(30) + 123;
+        Set<Long> slots = new HashSet<>();
+        int immediate = 0;
+        for (int i = 0; i < 100; i++) {
+            long slot = RemotePollScheduler.getSlot("folder/job-" + i + "#remote", interval, tick);
+            assertTrue(slot >= tick && slot < tick + interval, "slot outside interval");
+            if (slot == tick) {
+                immediate++;
+            }
+            slots.add(slot);
+        }
+        assertTrue(immediate <= 1, immediate + " polls run at the tick");
+        assertTrue(slots.size() > 50, "polls are not spread");
+        assertEquals(tick, RemotePollScheduler.getSlot("job#remote", 0, tick));
+    }
+}
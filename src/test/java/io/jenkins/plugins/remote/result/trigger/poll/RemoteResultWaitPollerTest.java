@@ -0,0 +1,186 @@
+package io.jenkins.plugins.remote.result.trigger.poll;
+
+import hudson.AbortException;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.RemoteBuildResultTrigger;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import io.jenkins.plugins.remote.result.trigger.auth2.NoneAuth;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteRequest;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteResponse;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransport;
+import io.jenkins.plugins.remote.result.trigger.transport.RemoteTransports;
+import io.jenkins.plugins.remote.result.trigger.utils.SourceMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Waiters are expired on every tick, and builds still running don't hide the completed ones after them
+ */
+@WithJenkins
+class RemoteResultWaitPollerTest {
+    private static final String SERVER_URL = "https://remote.example.com/";
+    private static final String JOB_URL = SERVER_URL + "job/upstream";
+
+    @AfterEach
+    void resetTransports() {
+        RemoteTransports.setFactory(null);
+    }
+
+    @Test
+    void testBuildingBuildIsSkipped(JenkinsRule j) throws Exception {
+        newServer();
+        RemoteTransports.setFactory(server -> new MapTransport(Map.of(
+                JOB_URL + "/lastCompletedBuild/buildNumber", "5",
+                JOB_URL + "/4/api/json", build(4, null, true),
+                JOB_URL + "/5/api/json", build(5, "SUCCESS", false))));
+        FreeStyleProject project = j.createFreeStyleProject();
+        Waiter success = new Waiter(project, "SUCCESS", Long.MAX_VALUE);
+        Waiter failure = new Waiter(project, "FAILURE", Long.MAX_VALUE);
+        success.setCheckedNumber(3);
+        failure.setCheckedNumber(3);
+        RemoteResultWaitPoller poller = RemoteResultWaitPoller.get();
+        poller.register(success);
+        poller.register(failure);
+        try {
+            poller.run();
+            assertEquals(5, success.result.get(60, TimeUnit.SECONDS).integerValue("number"));
+            // 4还在构建中，已检查的位置不能越过它
+            assertEquals(3, failure.getCheckedNumber());
+            assertFalse(failure.result.isDone());
+        } finally {
+            poller.unregister(failure);
+        }
+    }
+
+    @Test
+    void testWaitersAreExpiredOnEveryTick(JenkinsRule j) throws Exception {
+        newServer();
+        FreeStyleProject project = j.createFreeStyleProject();
+        Waiter timedOut = new Waiter(project, "SUCCESS", System.currentTimeMillis() - 1);
+        Waiter deleted = new Waiter(null, "SUCCESS", Long.MAX_VALUE);
+        RemoteResultWaitPoller poller = RemoteResultWaitPoller.get();
+        poller.register(timedOut);
+        poller.register(deleted);
+
+        // 不等调度器上的轮询，当前周期就失败
+        poller.run();
+        assertTrue(timedOut.result.isCompletedExceptionally());
+        assertTrue(deleted.result.isCompletedExceptionally());
+        assertEquals(0, poller.getGroupCount());
+    }
+
+    private static void newServer() {
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("remote");
+        server.setUrl(SERVER_URL);
+        server.setAuth2(NoneAuth.INSTANCE);
+        RemoteBuildResultTrigger.RemoteBuildResultTriggerDescriptor.get().setRemoteJenkinsServers(List.of(server));
+    }
+
+    private static String build(int number, String result, boolean building) {
+        return "{\"number\":" + number + ",\"url\":\"" + JOB_URL + "/" + number + "/\""
+                + ",\"result\":" + (result != null ? "\"" + result + "\"" : "null")
+                + ",\"building\":" + building + "}";
+    }
+
+    /**
+     * waits for a result, completed by the poller
+     */
+    private static class Waiter implements RemoteResultWaiter {
+        private final Item item;
+        private final String expected;
+        private final long deadline;
+        private final CompletableFuture<SourceMap> result = new CompletableFuture<>();
+        private volatile Integer checkedNumber;
+
+        Waiter(Item item, String expected, long deadline) {
+            this.item = item;
+            this.expected = expected;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public String getRemoteServer() {
+            return "remote";
+        }
+
+        @Override
+        public String getRemoteJobUrl() {
+            return JOB_URL;
+        }
+
+        @Override
+        public Item getItem() {
+            return item;
+        }
+
+        @Override
+        public Integer getCheckedNumber() {
+            return checkedNumber;
+        }
+
+        @Override
+        public void setCheckedNumber(int checkedNumber) {
+            this.checkedNumber = checkedNumber;
+        }
+
+        @Override
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean isMatched(SourceMap build, SourceMap resultJson) {
+            return expected.equals(build.stringValue("result"));
+        }
+
+        @Override
+        public void onMatched(SourceMap build, SourceMap resultJson) {
+            result.complete(build);
+        }
+
+        @Override
+        public void onFailed(Throwable cause) {
+            assertInstanceOf(AbortException.class, cause);
+            result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * answers recorded bodies by url, 404 to any other
+     */
+    private static class MapTransport implements RemoteTransport {
+        private final Map<String, String> bodies;
+
+        MapTransport(Map<String, String> bodies) {
+            this.bodies = bodies;
+        }
+
+        @Override
+        public RemoteResponse get(RemoteRequest request) {
+            String body = bodies.get(request.getUrl());
+            if (body == null) {
+                return new RemoteResponse(404, name -> null, null, null);
+            }
+            return new RemoteResponse(200, name -> "Content-Type".equalsIgnoreCase(name) ? "application/json" : null,
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), null);
+        }
+
+        @Override
+        public CompletableFuture<RemoteResponse> getAsync(RemoteRequest request) {
+            return CompletableFuture.completedFuture(get(request));
+        }
+    }
+}
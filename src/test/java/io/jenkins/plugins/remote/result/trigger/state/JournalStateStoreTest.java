@@ -0,0 +1,78 @@
+package io.jenkins.plugins.remote.result.trigger.state;
+
+import hudson.model.Item;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Journal replay, batched updates, index by remote job and torn records
+ */
+class JournalStateStoreTest {
+
+    @Test
+    void testReplayRenameAndTornRecord(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("state.journal").toFile();
+        Item foo = job("folder/foo");
+        try (JournalStateStore store = new JournalStateStore(file)) {
+            store.save(foo, List.of(info("remote-a", 3), info("remote-b", 5)));
+            Map<String, List<JobResultInfo>> batch = new LinkedHashMap<>();
+            batch.put("bar", List.of(info("remote-a", 7)));
+            batch.put("baz", List.of(info("remote-c", 1)));
+            store.saveAll(batch);
+            store.save(foo, List.of(info("remote-a", 4)));
+            store.rename("baz", "qux");
+        }
+
+        try (JournalStateStore store = new JournalStateStore(file)) {
+            assertEquals(4, store.load(foo).get(0).getCheckedNumber());
+            assertEquals(Set.of("folder/foo", "bar"), store.findJobs("remote-a"));
+            assertTrue(store.findJobs("remote-b").isEmpty());
+            assertEquals(Set.of("qux"), store.findJobs("remote-c"));
+            assertEquals(Set.of("folder/foo", "bar", "qux"), store.loadAll().keySet());
+            store.delete(job("bar"));
+        }
+
+        // 追加时崩溃留下的半条记录
+        long length = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(length);
+            raf.writeInt(1000);
+            raf.writeInt(0);
+            raf.write(new byte[10]);
+        }
+        try (JournalStateStore store = new JournalStateStore(file)) {
+            assertEquals(Set.of("folder/foo", "qux"), store.loadAll().keySet());
+            assertEquals(length, file.length());
+            store.save(foo, List.of(info("remote-a", 5)));
+        }
+        try (JournalStateStore store = new JournalStateStore(file)) {
+            assertEquals(5, store.load(foo).get(0).getCheckedNumber());
+        }
+    }
+
+    private static Item job(String fullName) {
+        Item item = mock(Item.class);
+        when(item.getFullName()).thenReturn(fullName);
+        return item;
+    }
+
+    private static JobResultInfo info(String remoteJob, int checkedNumber) {
+        JobResultInfo info = new JobResultInfo();
+        info.setRemoteJob(remoteJob);
+        info.setCheckedNumber(checkedNumber);
+        return info;
+    }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.remote.result.trigger.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.remote.result.trigger.RemoteJenkinsServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transports against a local stand-in of a remote Jenkins,
+ * run the benchmark with -Dbenchmark=true
+ */
+class RemoteTransportBenchmarkTest {
+    private static final String BODY = "{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":42,\"result\":\"SUCCESS\"}";
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/job/foo/lastBuild/api/json", exchange -> {
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            if ("\"42\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"42\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/job/foo/lastBuild/api/json";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testTransportsGetAndConditionalGet() throws Exception {
+        for (RemoteTransport.Type type : RemoteTransport.Type.values()) {
+            RemoteTransport transport = RemoteTransports.create(newServer(type));
+            try (RemoteResponse response = transport.get(new RemoteRequest(url, Map.of(), null))) {
+                assertEquals(200, response.getStatus(), type.name());
+                assertEquals("\"42\"", response.getHeader("etag"), type.name());
+                assertEquals(BODY, IOUtils.toString(response.getBody(), StandardCharsets.UTF_8), type.name());
+            }
+            try (RemoteResponse response = transport.get(new RemoteRequest(url, Map.of("If-None-Match", "\"42\""), null))) {
+                assertEquals(304, response.getStatus(), type.name());
+            }
+            try (RemoteResponse response = transport.getAsync(new RemoteRequest(url, Map.of(), null)).get(10, TimeUnit.SECONDS)) {
+                assertEquals(BODY, IOUtils.toString(response.getBody(), StandardCharsets.UTF_8), type.name());
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 5000);
+        int concurrency = Integer.getInteger("benchmark.concurrency", 32);
+        for (RemoteTransport.Type type : RemoteTransport.Type.values()) {
+            RemoteTransport transport = RemoteTransports.create(newServer(type));
+            // warm up
+            runSequential(transport, 500);
+
+            long start = System.nanoTime();
+            runSequential(transport, requests);
+            long sequential = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < requests; i += concurrency) {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int j = 0; j < concurrency; j++) {
+                    futures.add(transport.getAsync(new RemoteRequest(url, Map.of(), null)).thenAccept(response -> {
+                        try (response) {
+                            IOUtils.consume(response.getBody());
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.MINUTES);
+            }
+            long async = System.nanoTime() - start;
+
+            System.out.printf("%-6s sequential: %6d req/s, async x%d: %6d req/s%n", type,
+                    requests * TimeUnit.SECONDS.toNanos(1) / sequential, concurrency,
+                    requests * TimeUnit.SECONDS.toNanos(1) / async);
+        }
+    }
+
+    private void runSequential(RemoteTransport transport, int requests) throws IOException {
+        for (int i = 0; i < requests; i++) {
+            try (RemoteResponse response = transport.get(new RemoteRequest(url, Map.of(), null))) {
+                IOUtils.consume(response.getBody());
+            }
+        }
+    }
+
+    private static RemoteJenkinsServer newServer(RemoteTransport.Type type) {
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setId("benchmark-" + type);
+        server.setUrl("http://127.0.0.1/");
+        server.setTransportType(type);
+        return server;
+    }
+}
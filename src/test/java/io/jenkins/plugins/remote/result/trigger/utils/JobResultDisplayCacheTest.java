@@ -0,0 +1,38 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Json panels are addressed by remote job and triggered build, never by position
+ */
+class JobResultDisplayCacheTest {
+
+    @Test
+    void testJsonIsAddressedByRemoteJob() throws Exception {
+        JobResultDisplayCache page = new JobResultDisplayCache(List.of(newInfo("a", 3), newInfo("b", 7)));
+        assertEquals("a", page.getDisplayInfos().get(0).getRemoteJob());
+        assertEquals(3, page.getDisplayInfos().get(0).getNumber());
+
+        // 页面渲染后远程任务被移除或重新触发，状态顺序改变
+        JobResultDisplayCache current = new JobResultDisplayCache(List.of(newInfo("b", 7), newInfo("a", 4)));
+        assertTrue(current.getJson("b", 7, JobResultDisplayCache.TYPE_RESULT).contains("\"number\" : 7"));
+        assertNull(current.getJson("a", 3, JobResultDisplayCache.TYPE_RESULT), "a triggered another build since");
+        assertNull(current.getJson("c", 0, JobResultDisplayCache.TYPE_RESULT));
+        assertNull(current.getJson(null, 0, JobResultDisplayCache.TYPE_RESULT));
+        assertNull(current.getJson("b", 7, JobResultDisplayCache.TYPE_RESULT_JSON), "no result json saved");
+    }
+
+    private static JobResultInfo newInfo(String remoteJob, int number) {
+        JobResultInfo info = new JobResultInfo();
+        info.setRemoteJob(remoteJob);
+        info.setTriggeredNumber(number);
+        info.setBuildResult(Map.of("number", number));
+        return info;
+    }
+}
@@ -0,0 +1,102 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import hudson.model.FreeStyleProject;
+import io.jenkins.plugins.remote.result.trigger.RemoteJobInfo;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import io.jenkins.plugins.remote.result.trigger.state.RemoteStateStores;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent updates of the state of one job, cached state of deleted and renamed jobs
+ */
+@WithJenkins
+class RemoteJobResultUtilsTest {
+    private static final int WRITERS = 8;
+    private static final int UPDATES = 50;
+
+    @Test
+    void testConcurrentUpdatesAreNotLost(JenkinsRule j) throws Exception {
+        FreeStyleProject project = j.createFreeStyleProject();
+        List<RemoteJobInfo> jobInfos = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            RemoteJobInfo jobInfo = new RemoteJobInfo();
+            jobInfo.setRemoteServer("server");
+            jobInfo.setRemoteJobUrl("https://remote.example.com/job/upstream-" + i);
+            jobInfo.setUid("upstream" + i);
+            jobInfos.add(jobInfo);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (RemoteJobInfo jobInfo : jobInfos) {
+                futures.add(executor.submit(() -> {
+                    for (int number = 1; number <= UPDATES; number++) {
+                        RemoteJobResultUtils.saveCheckedNumber(project, jobInfo, number);
+                    }
+                    return null;
+                }));
+            }
+            // 清理和读取与写入并发
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < UPDATES; i++) {
+                    RemoteJobResultUtils.cleanUnusedBuildInfo(project, jobInfos);
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < UPDATES; i++) {
+                    RemoteJobResultUtils.getJobRemoteResultEnvs(project);
+                }
+                return null;
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (RemoteJobInfo jobInfo : jobInfos) {
+            assertEquals(UPDATES, RemoteJobResultUtils.getCheckedNumber(project, jobInfo), jobInfo.getUid());
+        }
+        // 持久化的状态与缓存一致
+        Comparator<JobResultInfo> byRemoteJob = Comparator.comparing(JobResultInfo::getRemoteJob);
+        List<JobResultInfo> saved = new ArrayList<>(RemoteStateStores.get().load(project));
+        List<JobResultInfo> cached = RemoteJobResultUtils.getSavedJobInfos(project);
+        saved.sort(byRemoteJob);
+        cached.sort(byRemoteJob);
+        assertEquals(cached, saved);
+    }
+
+    @Test
+    void testRecreatedJobDoesNotInheritCachedState(JenkinsRule j) throws Exception {
+        RemoteJobInfo jobInfo = new RemoteJobInfo();
+        jobInfo.setRemoteServer("server");
+        jobInfo.setRemoteJobUrl("https://remote.example.com/job/upstream");
+        jobInfo.setUid("upstream");
+
+        FreeStyleProject project = j.createFreeStyleProject("downstream");
+        RemoteJobResultUtils.saveCheckedNumber(project, jobInfo, 7);
+        project.delete();
+        // 同名重建的任务不能读到旧任务的缓存
+        FreeStyleProject recreated = j.createFreeStyleProject("downstream");
+        assertEquals(0, RemoteJobResultUtils.getCheckedNumber(recreated, jobInfo));
+
+        RemoteJobResultUtils.saveCheckedNumber(recreated, jobInfo, 9);
+        recreated.renameTo("moved");
+        assertEquals(9, RemoteJobResultUtils.getCheckedNumber(recreated, jobInfo));
+        assertEquals(0, RemoteJobResultUtils.getCheckedNumber(j.createFreeStyleProject("downstream"), jobInfo));
+    }
+}
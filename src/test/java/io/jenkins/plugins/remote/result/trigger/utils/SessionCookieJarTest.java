@@ -0,0 +1,31 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import okhttp3.Cookie;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only the remote Jenkins session cookie counts as a session
+ */
+class SessionCookieJarTest {
+    private static final HttpUrl URL = HttpUrl.get("https://remote.example.com/job/upstream/api/json");
+
+    @Test
+    void testLoadBalancerCookieIsNotASession() {
+        SessionCookieJar jar = new SessionCookieJar(TimeUnit.MINUTES.toMillis(30));
+        jar.saveFromResponse(URL, List.of(Cookie.parse(URL, "AWSALB=affinity; Path=/")));
+        assertEquals(1, jar.loadForRequest(URL).size());
+        assertFalse(jar.hasSession(URL));
+
+        jar.saveFromResponse(URL, List.of(Cookie.parse(URL, "JSESSIONID.1a2b3c=node0; Path=/; HttpOnly")));
+        assertTrue(jar.hasSession(URL));
+
+        jar.clear();
+        assertFalse(jar.hasSession(URL));
+    }
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.remote.result.trigger.utils;
+
+import io.jenkins.plugins.remote.result.trigger.TestConst;
+import io.jenkins.plugins.remote.result.trigger.model.BuildSummary;
+import io.jenkins.plugins.remote.result.trigger.model.JobResultInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * State formats round trip, run the benchmark with -Dbenchmark=true
+ */
+class StateFormatBenchmarkTest {
+
+    @Test
+    void testFormatsRoundTrip(@TempDir Path dir) throws Exception {
+        List<JobResultInfo> infos = newInfos(3);
+        for (StateFormat format : StateFormat.values()) {
+            for (boolean gzip : new boolean[]{false, true}) {
+                File file = write(dir, format, gzip, infos);
+                assertTrue(StateFormat.getCandidateFiles(dir.toFile()).contains(file), file.getName());
+                assertEquals(infos, StateFormat.read(file), file.getName());
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark(@TempDir Path dir) throws Exception {
+        int rounds = Integer.getInteger("benchmark.rounds", 200);
+        List<JobResultInfo> infos = newInfos(Integer.getInteger("benchmark.jobs", 20));
+        for (StateFormat format : StateFormat.values()) {
+            for (boolean gzip : new boolean[]{false, true}) {
+                File file = write(dir, format, gzip, infos);
+                // warm up
+                for (int i = 0; i < rounds / 10; i++) {
+                    StateFormat.read(file);
+                    format.encode(infos, gzip);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    format.encode(infos, gzip);
+                }
+                long write = (System.nanoTime() - start) / rounds;
+
+                start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    StateFormat.read(file);
+                }
+                long read = (System.nanoTime() - start) / rounds;
+
+                System.out.printf("%-11s gzip: %-5s size: %8d bytes, write: %6d us, read: %6d us%n", format, gzip,
+                        file.length(), TimeUnit.NANOSECONDS.toMicros(write), TimeUnit.NANOSECONDS.toMicros(read));
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    private static File write(Path dir, StateFormat format, boolean gzip, List<JobResultInfo> infos) throws Exception {
+        File file = dir.resolve(format.getFileName(gzip)).toFile();
+        Files.write(file.toPath(), format.encode(infos, gzip));
+        return file;
+    }
+
+    private static List<JobResultInfo> newInfos(int count) {
+        List<JobResultInfo> infos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BuildSummary build = new BuildSummary();
+            build.setNumber(100 + i);
+            build.setUrl("https://remote.example.com/job/upstream-" + i + "/" + (100 + i) + "/");
+            build.setResult("SUCCESS");
+            build.setTimestamp(1676017363424L + i);
+            build.setDuration(60000L);
+            build.getParameters().put("ENV", "test");
+            build.getParameters().put("BRANCH", "main");
+
+            Map<String, Object> remoteResult = new LinkedHashMap<>();
+            remoteResult.put("version", "1.0." + i);
+            remoteResult.put("report", TestConst.garbled5KString1);
+            remoteResult.put("modules", List.of(Map.of("name", "core", "passed", true), Map.of("name", "web", "passed", false)));
+
+            JobResultInfo info = new JobResultInfo();
+            info.setRemoteServer("server");
+            info.setRemoteJob("job-" + i);
+            info.setRemoteJobUrl("https://remote.example.com/job/upstream-" + i);
+            info.setUid("upstream" + i);
+            info.setCheckedNumber(100 + i);
+            info.setTriggeredNumber(100 + i);
+            info.setBuild(build);
+            info.setRemoteResult(remoteResult);
+            infos.add(info);
+        }
+        return infos;
+    }
+}